@@ -8,7 +8,7 @@ import {
   useMemo,
 } from "react";
 import { Admin, DashboardStats, DailySale, SalesByPizzaType } from "@/types";
-import { api } from "@/services/apiService";
+import { api, endSession, storeSession } from "@/services/apiService";
 import { AuthDtos } from "@/dto";
 
 function isLoginResponse(data: any): data is AuthDtos.LoginResponse {
@@ -55,7 +55,7 @@ export const AdminProvider = ({ children }: AdminProviderProps) => {
     setDashboardStats(null);
     setWeeklySales([]);
     setSalesByType([]);
-    localStorage.removeItem("authToken");
+    endSession('admin');
     localStorage.removeItem("adminName");
   }, []);
 
@@ -105,7 +105,7 @@ export const AdminProvider = ({ children }: AdminProviderProps) => {
       const response = await api.admin.login({ username, password });
 
       if (isLoginResponse(response)) {
-        localStorage.setItem("authToken", response.token);
+        storeSession('admin', response.token, response.refreshToken);
         localStorage.setItem("adminName", response.name);
         setAdmin({ id: '', username, name: response.name });
         // Os dados do dashboard serão carregados automaticamente pelo useEffect acima.
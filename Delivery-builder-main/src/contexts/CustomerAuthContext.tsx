@@ -1,5 +1,5 @@
 import { createContext, useState, useContext, ReactNode, useCallback, useMemo, useEffect } from "react";
-import { api } from "@/services/apiService";
+import { api, endSession, storeSession } from "@/services/apiService";
 import { AuthDtos } from "@/dto"; 
 
 function isLoginResponse(data: any): data is AuthDtos.LoginResponse {
@@ -47,7 +47,7 @@ export const CustomerAuthProvider = ({ children }: { children: ReactNode }) => {
     try {
       const response = await api.customer.login({ email, password });
       if (isLoginResponse(response)) {
-        localStorage.setItem("customerAuthToken", response.token);
+        storeSession('customer', response.token, response.refreshToken);
         localStorage.setItem("customerName", response.name);
         setCustomerName(response.name);
         return true;
@@ -86,9 +86,8 @@ export const CustomerAuthProvider = ({ children }: { children: ReactNode }) => {
   }, [login]);
 
   const logout = useCallback(() => {
-    localStorage.removeItem("customerAuthToken");
+    endSession('customer', 'admin');
     localStorage.removeItem("customerName");
-    localStorage.removeItem("authToken");
     localStorage.removeItem("adminName");
     setCustomerName(null);
   }, []);
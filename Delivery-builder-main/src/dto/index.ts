@@ -43,6 +43,12 @@ export namespace AuthDtos {
       token: string;
       name: string;
       email?: string;
+      refreshToken?: string;
+    }
+
+    export interface TokenResponse {
+      token: string;
+      refreshToken: string;
     }
 
     export interface AdminLoginRequest {
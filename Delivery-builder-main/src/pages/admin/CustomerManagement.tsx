@@ -7,9 +7,10 @@ import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogFooter, DialogC
 import { AlertDialog, AlertDialogAction, AlertDialogCancel, AlertDialogContent, AlertDialogDescription, AlertDialogFooter, AlertDialogHeader, AlertDialogTitle, AlertDialogTrigger } from "@/components/ui/alert-dialog";
 import { Label } from "@/components/ui/label";
 import { toast } from "@/components/ui/use-toast";
-import { Users, Edit, Trash2, Search, MapPin, Mail, Phone, Calendar, ArrowLeft, ArrowUpDown, Building, CheckCircle, AlertCircle, Globe, ShoppingBag, DollarSign } from "lucide-react";
+import { Users, Edit, Trash2, Search, MapPin, Mail, Phone, Calendar, ArrowLeft, ArrowUpDown, ChevronLeft, ChevronRight, Building, CheckCircle, AlertCircle, Globe, ShoppingBag, DollarSign } from "lucide-react";
 import { Customer, Address } from "@/types";
 import { api } from "@/services/apiService";
+import { useDebounce } from "@/hooks/use-debounce";
 import { Skeleton } from "@/components/ui/skeleton";
 import { Avatar, AvatarFallback, AvatarImage } from "@/components/ui/avatar";
 import { Badge } from "@/components/ui/badge";
@@ -23,6 +24,10 @@ type SortByType = 'name' | 'email' | 'lastLogin' | 'totalSpent' | 'totalOrders';
 type SortOrderType = 'asc' | 'desc';
 type StatusType = 'active' | 'inactive';
 
+const PAGE_SIZE = 30;
+const SEARCH_LIMIT = 30;
+const SEARCH_DEBOUNCE_MS = 300;
+
 const formatCurrency = (value: number) => new Intl.NumberFormat('pt-BR', { style: 'currency', currency: 'BRL' }).format(value);
 
 const formatDate = (dateString?: string, short: boolean = false) => {
@@ -53,21 +58,43 @@ const statusConfig: Record<StatusType, { label: string; icon: React.ReactNode; c
 // ============================================================================
 interface CustomerListProps {
   customers: Customer[];
+  page: number;
+  totalPages: number;
+  totalElements: number;
+  onPageChange: (page: number) => void;
   onCustomerSelect: (customer: Customer) => void;
   isLoading: boolean;
 }
 
-const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSelect, isLoading }) => {
+// A lista vem paginada do servidor; com 2 ou mais caracteres a busca vai para /customers/search
+// (nome, e-mail, WhatsApp ou CPF) e substitui a página. A ordenação atua sobre o que foi carregado.
+const CustomerListPage: React.FC<CustomerListProps> = ({ customers, page, totalPages, totalElements, onPageChange, onCustomerSelect, isLoading }) => {
   const [searchTerm, setSearchTerm] = useState('');
+  const [searchResults, setSearchResults] = useState<Customer[]>([]);
+  const [isSearching, setIsSearching] = useState(false);
   const [sortBy, setSortBy] = useState<SortByType>('name');
   const [sortOrder, setSortOrder] = useState<SortOrderType>('asc');
-  
+
+  const query = useDebounce(searchTerm.trim(), SEARCH_DEBOUNCE_MS);
+  const searchActive = query.length >= 2;
+
+  useEffect(() => {
+    if (!searchActive) {
+      setSearchResults([]);
+      setIsSearching(false);
+      return;
+    }
+    let cancelled = false;
+    setIsSearching(true);
+    api.admin.searchCustomers(query, SEARCH_LIMIT)
+      .then(data => { if (!cancelled) setSearchResults(data || []); })
+      .catch(() => { if (!cancelled) toast({ title: "Erro na busca", description: "Não foi possível buscar clientes.", variant: "destructive" }); })
+      .finally(() => { if (!cancelled) setIsSearching(false); });
+    return () => { cancelled = true; };
+  }, [query, searchActive]);
+
   const filteredAndSortedCustomers = useMemo(() => {
-    return customers
-      .filter(customer =>
-        customer.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-        customer.email.toLowerCase().includes(searchTerm.toLowerCase())
-      )
+    return [...(searchActive ? searchResults : customers)]
       .sort((a, b) => {
         const aValue = a[sortBy] || 0; // Default to 0 for numeric/date fields
         const bValue = b[sortBy] || 0;
@@ -75,7 +102,7 @@ const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSe
         if (aValue > bValue) return sortOrder === 'asc' ? 1 : -1;
         return 0;
       });
-  }, [customers, searchTerm, sortBy, sortOrder]);
+  }, [customers, searchResults, searchActive, sortBy, sortOrder]);
 
   return (
     <div className="p-6">
@@ -85,7 +112,9 @@ const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSe
           <p className="text-gray-600">Gerencie os dados dos seus clientes.</p>
         </div>
         <div className="bg-blue-50 px-4 py-2 rounded-lg">
-          <span className="text-sm font-medium text-blue-700">{filteredAndSortedCustomers.length} clientes encontrados</span>
+          <span className="text-sm font-medium text-blue-700">
+            {searchActive ? `${filteredAndSortedCustomers.length} clientes encontrados` : `${totalElements} clientes cadastrados`}
+          </span>
         </div>
       </div>
 
@@ -95,7 +124,7 @@ const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSe
             <Search className="absolute left-3 top-1/2 transform -translate-y-1/2 text-gray-400 h-4 w-4" />
             <Input
               type="text"
-              placeholder="Buscar por nome ou email..."
+              placeholder="Buscar por nome, email, WhatsApp ou CPF..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
               className="w-full pl-10"
@@ -126,7 +155,7 @@ const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSe
         </div>
       </Card>
 
-      {isLoading ? (
+      {isLoading || isSearching ? (
         <div className="grid grid-cols-1 lg:grid-cols-2 xl:grid-cols-3 gap-6">
             {[...Array(6)].map((_, i) => <Skeleton key={i} className="h-56 w-full rounded-xl"/>)}
         </div>
@@ -187,6 +216,18 @@ const CustomerListPage: React.FC<CustomerListProps> = ({ customers, onCustomerSe
           <p className="text-gray-500">Tente ajustar os filtros ou termo de busca</p>
         </div>
       )}
+
+      {!searchActive && totalPages > 1 && (
+        <div className="flex items-center justify-center gap-4 mt-6">
+          <Button variant="outline" size="sm" disabled={isLoading || page === 0} onClick={() => onPageChange(page - 1)}>
+            <ChevronLeft className="h-4 w-4 mr-1" />Anterior
+          </Button>
+          <span className="text-sm text-gray-600">Página {page + 1} de {totalPages}</span>
+          <Button variant="outline" size="sm" disabled={isLoading || page + 1 >= totalPages} onClick={() => onPageChange(page + 1)}>
+            Próxima<ChevronRight className="h-4 w-4 ml-1" />
+          </Button>
+        </div>
+      )}
     </div>
   );
 };
@@ -333,9 +374,9 @@ const EditCustomerDialog = ({ customer, open, onOpenChange, onSave }) => {
             cpf: formData.cpf,
         };
         try {
-            await api.admin.updateCustomer(formData.id, updatePayload);
+            const updated = await api.admin.updateCustomer(formData.id, updatePayload);
             toast({ title: "Sucesso", description: "Dados do cliente atualizados." });
-            onSave();
+            onSave(updated);
         } catch (error) {
             toast({ title: "Erro", description: `Não foi possível atualizar o cliente: ${error.message}`, variant: "destructive" });
         } finally {
@@ -368,16 +409,22 @@ const EditCustomerDialog = ({ customer, open, onOpenChange, onSave }) => {
 // Componente Principal da Página
 export const CustomerManagement = () => {
     const [customers, setCustomers] = useState<Customer[]>([]);
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalElements, setTotalElements] = useState(0);
     const [isLoading, setIsLoading] = useState(true);
     const [selectedCustomer, setSelectedCustomer] = useState<Customer | null>(null);
     const [isEditDialogOpen, setIsEditDialogOpen] = useState(false);
 
-    const fetchCustomers = async (): Promise<Customer[] | undefined> => {
+    const fetchCustomers = async (pageNumber: number = page): Promise<Customer[] | undefined> => {
         setIsLoading(true);
         try {
-            const data = await api.admin.getAllCustomers();
-            setCustomers(data || []);
-            return data;
+            const data = await api.admin.getCustomersPage(pageNumber, PAGE_SIZE);
+            setCustomers(data.items || []);
+            setPage(data.page);
+            setTotalPages(data.totalPages);
+            setTotalElements(data.totalElements);
+            return data.items;
         } catch (error) {
             toast({ title: "Erro ao buscar clientes", description: "Não foi possível carregar a lista de clientes.", variant: "destructive" });
         } finally {
@@ -386,7 +433,7 @@ export const CustomerManagement = () => {
     };
 
     useEffect(() => {
-        fetchCustomers();
+        fetchCustomers(0);
     }, []);
     
     const handleDeleteCustomer = async (customerId: string) => {
@@ -404,14 +451,11 @@ export const CustomerManagement = () => {
         setIsEditDialogOpen(true);
     };
     
-    const handleSaveAndCloseDialog = () => {
+    // O PUT devolve o cliente atualizado; a página é recarregada só para refletir a alteração na lista
+    const handleSaveAndCloseDialog = (updatedCustomer: Customer) => {
         setIsEditDialogOpen(false);
-        fetchCustomers().then((updatedCustomers) => {
-            if (selectedCustomer) {
-                const freshCustomer = (updatedCustomers || []).find(c => c.id === selectedCustomer.id);
-                setSelectedCustomer(freshCustomer || null);
-            }
-        });
+        setSelectedCustomer(updatedCustomer);
+        fetchCustomers();
     };
 
     if (selectedCustomer) {
@@ -439,6 +483,10 @@ export const CustomerManagement = () => {
         <AdminLayout>
             <CustomerListPage
                 customers={customers}
+                page={page}
+                totalPages={totalPages}
+                totalElements={totalElements}
+                onPageChange={fetchCustomers}
                 onCustomerSelect={setSelectedCustomer}
                 isLoading={isLoading}
             />
@@ -1,8 +1,9 @@
 import React, { useState, useEffect, useMemo } from 'react';
 import { AdminLayout } from "@/components/AdminLayout";
-import { Order, Customer, OrderStatus, OrderItemFromApi } from "@/types";
+import { Order, OrderStatus, OrderItemFromApi } from "@/types";
 import { useOrders } from "@/contexts/OrderContext";
 import { api } from "@/services/apiService";
+import { useDebounce } from "@/hooks/use-debounce";
 import { Search, Phone, Mail, MapPin, CreditCard, Clock, FileText, ShoppingBag, Banknote, Utensils, GlassWater, Pizza, Star, Slice, PlusCircle, MessageSquare } from 'lucide-react';
 import { statusConfig, formatCurrency, formatTime, formatDate } from '@/lib/orderUtils';
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@/components/ui/select";
@@ -10,10 +11,12 @@ import { Button } from '@/components/ui/button';
 import { Skeleton } from '@/components/ui/skeleton';
 
 
+const CUSTOMER_SEARCH_LIMIT = 20;
+const SEARCH_DEBOUNCE_MS = 300;
+
 // Componente da Lista de Pedidos (à esquerda)
 interface OrderListProps {
   orders: Order[];
-  customers: Customer[];
   selectedOrderId: string | null;
   onOrderSelect: (orderId: string) => void;
   searchTerm: string;
@@ -25,7 +28,6 @@ interface OrderListProps {
 
 const OrderList: React.FC<OrderListProps> = ({
   orders,
-  customers,
   selectedOrderId,
   onOrderSelect,
   searchTerm,
@@ -35,17 +37,33 @@ const OrderList: React.FC<OrderListProps> = ({
   isLoading
 }) => {
     
+  // Telefone e CPF chegam em formatos variados; o servidor normaliza e devolve os clientes que batem
+  const query = useDebounce(searchTerm.trim(), SEARCH_DEBOUNCE_MS);
+  const [matchedCustomerIds, setMatchedCustomerIds] = useState<Set<string>>(new Set());
+
+  useEffect(() => {
+    if (query.length < 2) {
+      setMatchedCustomerIds(new Set());
+      return;
+    }
+    let cancelled = false;
+    api.admin.searchCustomers(query, CUSTOMER_SEARCH_LIMIT)
+      .then(customers => { if (!cancelled) setMatchedCustomerIds(new Set((customers || []).map(c => c.id))); })
+      .catch(() => { if (!cancelled) setMatchedCustomerIds(new Set()); });
+    return () => { cancelled = true; };
+  }, [query]);
+
   const filteredOrders = useMemo(() => orders.filter(order => {
-    const customer = customers.find(c => c.id === order.customerUser?.id);
     const matchesSearch =
       order.id.substring(0, 8).toLowerCase().includes(searchTerm.toLowerCase()) ||
       order.customerUser?.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      customer?.whatsapp?.includes(searchTerm);
+      order.customerUser?.whatsapp?.includes(searchTerm) ||
+      matchedCustomerIds.has(order.customerUser?.id);
 
     const matchesStatus = statusFilter === 'all' || order.status === statusFilter;
     
     return matchesSearch && matchesStatus;
-  }), [orders, customers, searchTerm, statusFilter]);
+  }), [orders, searchTerm, matchedCustomerIds, statusFilter]);
 
   return (
     <div className="w-[37rem] bg-white border-r border-gray-200 flex flex-col h-full flex-shrink-0">
@@ -144,11 +162,10 @@ const OrderList: React.FC<OrderListProps> = ({
 // Componente dos Detalhes do Pedido (à direita)
 interface OrderDetailsProps {
   order: Order | null;
-  customer: Customer | null | undefined;
   onStatusUpdate: (orderId: string, status: OrderStatus) => void;
 }
 
-const OrderDetails: React.FC<OrderDetailsProps> = ({ order, customer, onStatusUpdate }) => {
+const OrderDetails: React.FC<OrderDetailsProps> = ({ order, onStatusUpdate }) => {
   if (!order) {
     return (
       <div className="flex-1 flex items-center justify-center bg-gray-50 p-4">
@@ -198,7 +215,7 @@ const OrderDetails: React.FC<OrderDetailsProps> = ({ order, customer, onStatusUp
                   <div className="w-8 h-8 bg-red-100 rounded-full flex items-center justify-center mr-3 text-red-700">👤</div>
                   <span className="font-medium text-gray-900">{order.customerUser.name}</span>
                 </div>
-              {customer?.whatsapp && <div className="flex items-center"><Phone className="w-4 h-4 text-gray-400 mr-3 ml-2" /><span className="text-gray-700">{customer.whatsapp}</span></div>}
+              {order.customerUser.whatsapp && <div className="flex items-center"><Phone className="w-4 h-4 text-gray-400 mr-3 ml-2" /><span className="text-gray-700">{order.customerUser.whatsapp}</span></div>}
               {order.customerUser.email && <div className="flex items-center"><Mail className="w-4 h-4 text-gray-400 mr-3 ml-2" /><span className="text-gray-700">{order.customerUser.email}</span></div>}
             </div>
           </div>
@@ -337,7 +354,6 @@ const OrderDetails: React.FC<OrderDetailsProps> = ({ order, customer, onStatusUp
 // Componente Principal da Página
 export const OrderManagement = () => {
     const { orders, refreshOrders, isLoading: isOrdersLoading } = useOrders();
-    const [customers, setCustomers] = useState<Customer[]>([]);
     const [isLoading, setIsLoading] = useState(true);
     
     const [selectedOrderId, setSelectedOrderId] = useState<string | null>(null);
@@ -348,8 +364,6 @@ export const OrderManagement = () => {
         const loadInitialData = async () => {
             setIsLoading(true);
             await refreshOrders();
-            const customerData = await api.admin.getAllCustomers();
-            setCustomers(Array.isArray(customerData) ? customerData : []);
             setIsLoading(false);
         };
         loadInitialData();
@@ -376,14 +390,12 @@ export const OrderManagement = () => {
     };
 
     const selectedOrder = useMemo(() => orders.find(o => o.id === selectedOrderId) || null, [orders, selectedOrderId]);
-    const selectedCustomer = useMemo(() => customers.find(c => c.id === selectedOrder?.customerUser?.id), [customers, selectedOrder]);
     
     return (
         <AdminLayout>
             <div className="flex h-[calc(100vh-theme(spacing.24))]">
                 <OrderList 
                     orders={orders.sort((a,b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())}
-                    customers={customers}
                     selectedOrderId={selectedOrderId}
                     onOrderSelect={setSelectedOrderId}
                     searchTerm={searchTerm}
@@ -394,7 +406,6 @@ export const OrderManagement = () => {
                 />
                 <OrderDetails 
                     order={selectedOrder}
-                    customer={selectedCustomer}
                     onStatusUpdate={handleStatusUpdate}
                 />
             </div>
@@ -1,34 +1,71 @@
 import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { Layout } from "@/components/Layout";
-import { Order } from "@/types";
+import { Order, OrderSummary } from "@/types";
 import { api } from "@/services/apiService";
 import { Card, CardContent, CardFooter, CardHeader, CardTitle } from "@/components/ui/card";
 import { Button } from "@/components/ui/button";
 import { OrderStatusBadge } from "@/components/OrderStatusBadge";
-import { Pizza, Truck, History, GlassWater } from "lucide-react";
+import { Pizza, Truck, History, GlassWater, ChevronDown, ChevronUp } from "lucide-react";
 import { Skeleton } from "@/components/ui/skeleton";
 
+const PAGE_SIZE = 10;
+
+// O histórico vem resumido e paginado por cursor; os itens de cada pedido só são buscados ao abrir o card
 export const MyOrders = () => {
-    const [orders, setOrders] = useState<Order[]>([]);
+    const [orders, setOrders] = useState<OrderSummary[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [isLoading, setIsLoading] = useState(true);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
+    const [details, setDetails] = useState<Record<string, Order>>({});
+    const [openIds, setOpenIds] = useState<Set<string>>(new Set());
+    const [loadingDetailId, setLoadingDetailId] = useState<string | null>(null);
     const navigate = useNavigate();
 
+    const fetchPage = async (cursor: string | null) => {
+        try {
+            const data = await api.customer.getOrderHistory(cursor, PAGE_SIZE);
+            setOrders(prev => cursor ? [...prev, ...data.items] : data.items);
+            setNextCursor(data.nextCursor);
+        } catch (error) {
+            console.error("Failed to fetch orders:", error);
+        }
+    };
+
     useEffect(() => {
-        const fetchOrders = async () => {
-            setIsLoading(true);
-            try {
-                const data = await api.customer.getCustomerOrders();
-                setOrders(Array.isArray(data) ? data : []);
-            } catch (error) {
-                console.error("Failed to fetch orders:", error);
-            } finally {
-                setIsLoading(false);
-            }
-        };
-        fetchOrders();
+        setIsLoading(true);
+        fetchPage(null).finally(() => setIsLoading(false));
     }, []);
 
+    const loadMore = () => {
+        if (!nextCursor) return;
+        setIsLoadingMore(true);
+        fetchPage(nextCursor).finally(() => setIsLoadingMore(false));
+    };
+
+    const toggleItems = async (orderId: string) => {
+        const next = new Set(openIds);
+        if (next.has(orderId)) {
+            next.delete(orderId);
+            setOpenIds(next);
+            return;
+        }
+        next.add(orderId);
+        setOpenIds(next);
+        if (details[orderId]) return;
+
+        setLoadingDetailId(orderId);
+        try {
+            const order = await api.customer.getOrderDetail(orderId);
+            setDetails(prev => ({ ...prev, [orderId]: order }));
+        } catch (error) {
+            console.error("Failed to fetch order detail:", error);
+            setOpenIds(prev => { const s = new Set(prev); s.delete(orderId); return s; });
+        } finally {
+            setLoadingDetailId(null);
+        }
+    };
+
     const formatPrice = (price: number) => new Intl.NumberFormat('pt-BR', { style: 'currency', currency: 'BRL' }).format(price);
     const formatDate = (dateString: string) => new Date(dateString).toLocaleDateString('pt-BR', {
         day: '2-digit',
@@ -63,9 +100,15 @@ export const MyOrders = () => {
                                 <Card key={order.id} className="overflow-hidden hover:shadow-lg transition-shadow">
                                     <CardHeader className="bg-gray-50 border-b"><div className="flex justify-between items-center"><div><CardTitle className="text-lg text-gray-800">Pedido #{order.id.substring(0, 8).toUpperCase()}</CardTitle><p className="text-sm text-gray-500 mt-1">Realizado em: {formatDate(order.createdAt)}</p></div><OrderStatusBadge status={order.status} /></div></CardHeader>
                                     <CardContent className="pt-6">
-                                        <h4 className="font-semibold mb-3 text-gray-700">Itens do Pedido:</h4>
-                                        <div className="space-y-4">
-                                            {order.items.map((item, index) => {
+                                        <button type="button" onClick={() => toggleItems(order.id)} className="flex items-center font-semibold text-gray-700 hover:text-red-600">
+                                            {order.itemCount} {order.itemCount === 1 ? 'item' : 'itens'}
+                                            {openIds.has(order.id) ? <ChevronUp className="h-4 w-4 ml-1" /> : <ChevronDown className="h-4 w-4 ml-1" />}
+                                        </button>
+                                        {openIds.has(order.id) && (loadingDetailId === order.id || !details[order.id] ? (
+                                            <div className="mt-4 flex items-center space-x-4"><Skeleton className="h-16 w-16 rounded-md" /><div className="space-y-2 flex-1"><Skeleton className="h-5 w-3/4" /><Skeleton className="h-4 w-1/2" /></div></div>
+                                        ) : (
+                                        <div className="space-y-4 mt-4">
+                                            {details[order.id].items.map((item, index) => {
                                                 const isPizza = item.itemType === 'PIZZA';
                                                 const imageUrl = isPizza ? item.pizzaType?.imageUrl : item.beverage?.imageUrl;
                                                 const ItemIcon = isPizza ? Pizza : GlassWater;
@@ -88,6 +131,7 @@ export const MyOrders = () => {
                                                 </div>
                                             )})}
                                         </div>
+                                        ))}
                                     </CardContent>
                                     <CardFooter className="bg-gray-50 border-t flex justify-between items-center py-4">
                                         <div className="text-lg"><span className="text-gray-600">Total: </span><span className="font-bold text-gray-800">{formatPrice(order.totalAmount)}</span></div>
@@ -96,6 +140,13 @@ export const MyOrders = () => {
                                 </Card>
                             ))
                         }
+                        {nextCursor && (
+                            <div className="text-center">
+                                <Button variant="outline" onClick={loadMore} disabled={isLoadingMore}>
+                                    {isLoadingMore ? 'Carregando...' : 'Carregar mais pedidos'}
+                                </Button>
+                            </div>
+                        )}
                     </div>
                 )}
             </div>
@@ -1,5 +1,6 @@
 import { useEffect } from 'react';
 import { useSearchParams, useNavigate } from 'react-router-dom';
+import { storeSession } from '@/services/apiService';
 
 export const OAuth2RedirectHandler = () => {
     const [searchParams] = useSearchParams();
@@ -11,7 +12,8 @@ export const OAuth2RedirectHandler = () => {
 
         if (token && name) {
             // Salva o token e o nome no localStorage para autenticar o usuário
-            localStorage.setItem('customerAuthToken', token);
+            // O login pelo Google não traz token de renovação; descarta o de uma sessão anterior
+            storeSession('customer', token);
             localStorage.setItem('customerName', name);
 
             // Redireciona para a página inicial.
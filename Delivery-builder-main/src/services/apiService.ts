@@ -1,16 +1,126 @@
-import { Admin, DashboardStats, DailySale, SalesByPizzaType, Order, OrderStatus, PizzaExtra, PizzaFlavor, PizzaType, Customer, Address, PizzaCrust, Beverage, BeverageCategory } from "@/types";
+import { Admin, DashboardStats, DailySale, SalesByPizzaType, Order, OrderStatus, PizzaExtra, PizzaFlavor, PizzaType, Customer, CustomerPage, CursorPage, OrderSummary, Address, PizzaCrust, Beverage, BeverageCategory } from "@/types";
 import { AuthDtos, OrderDtos, CustomerDtos, MenuDtos } from "@/dto";
 
 const API_BASE_URL = 'http://localhost:8090/api';
 
-async function baseRequest<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
+// Logo após uma escrita (ex.: checkout), as leituras vão ao banco principal: a réplica pode estar atrasada
+const READ_YOUR_WRITES_WINDOW_MS = 10_000;
+let lastWriteAt = 0;
+
+// Sessão ativa: a do cliente tem precedência, como no envio do token abaixo
+const SESSION_KEYS = {
+  customer: { token: "customerAuthToken", refreshToken: "customerRefreshToken" },
+  admin: { token: "authToken", refreshToken: "refreshToken" },
+};
+type SessionKind = keyof typeof SESSION_KEYS;
+
+// Renova o JWT um pouco antes de expirar, para não depender de uma requisição falhar
+const REFRESH_BEFORE_EXPIRY_MS = 60_000;
+let refreshing: Promise<boolean> | null = null;
+
+function activeSession(): SessionKind | null {
+  if (localStorage.getItem(SESSION_KEYS.customer.token)) return 'customer';
+  if (localStorage.getItem(SESSION_KEYS.admin.token)) return 'admin';
+  return null;
+}
+
+function tokenExpiresAt(token: string): number | null {
+  try {
+    const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+    return typeof payload.exp === 'number' ? payload.exp * 1000 : null;
+  } catch {
+    return null;
+  }
+}
+
+export function storeSession(kind: SessionKind, token: string, refreshToken?: string) {
+  localStorage.setItem(SESSION_KEYS[kind].token, token);
+  if (refreshToken) {
+    localStorage.setItem(SESSION_KEYS[kind].refreshToken, refreshToken);
+  } else {
+    localStorage.removeItem(SESSION_KEYS[kind].refreshToken);
+  }
+}
+
+// Troca o token de renovação por um novo par; várias requisições ao mesmo tempo compartilham a mesma troca.
+// Entre abas, a trava do navegador serializa as trocas: quem espera encontra o par já renovado pela outra aba.
+function refreshSession(kind: SessionKind): Promise<boolean> {
+  if (!refreshing) {
+    const seen = localStorage.getItem(SESSION_KEYS[kind].refreshToken);
+    const exchange = () => rotateRefreshToken(kind, seen);
+    refreshing = (navigator.locks ? navigator.locks.request(`auth-refresh-${kind}`, exchange) : exchange())
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+}
+
+async function rotateRefreshToken(kind: SessionKind, seen: string | null): Promise<boolean> {
+  const refreshToken = localStorage.getItem(SESSION_KEYS[kind].refreshToken);
+  if (!refreshToken) return false;
+  if (refreshToken !== seen) return true;
+  try {
+    const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken }),
+    });
+    if (!response.ok) {
+      // Token de renovação expirado ou revogado: só um novo login resolve
+      if (response.status === 401) {
+        localStorage.removeItem(SESSION_KEYS[kind].refreshToken);
+      }
+      return false;
+    }
+    const tokens: AuthDtos.TokenResponse = await response.json();
+    storeSession(kind, tokens.token, tokens.refreshToken);
+    return true;
+  } catch (error) {
+    console.error('Falha ao renovar a sessão:', error);
+    return false;
+  }
+}
+
+async function ensureFreshToken() {
+  const kind = activeSession();
+  if (!kind || !localStorage.getItem(SESSION_KEYS[kind].refreshToken)) return;
+  const expiresAt = tokenExpiresAt(localStorage.getItem(SESSION_KEYS[kind].token)!);
+  if (expiresAt !== null && expiresAt - Date.now() < REFRESH_BEFORE_EXPIRY_MS) {
+    await refreshSession(kind);
+  }
+}
+
+// Revoga os tokens de renovação guardados no servidor e limpa a sessão local
+export async function endSession(...kinds: SessionKind[]) {
+  await Promise.all(kinds.map(async kind => {
+    const refreshToken = localStorage.getItem(SESSION_KEYS[kind].refreshToken);
+    localStorage.removeItem(SESSION_KEYS[kind].token);
+    localStorage.removeItem(SESSION_KEYS[kind].refreshToken);
+    if (!refreshToken) return;
+    try {
+      await fetch(`${API_BASE_URL}/auth/logout`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      });
+    } catch (error) {
+      console.error('Falha ao encerrar a sessão no servidor:', error);
+    }
+  }));
+}
+
+async function baseRequest<T>(endpoint: string, options: RequestInit = {}, retried = false): Promise<T> {
   let url = `${API_BASE_URL}${endpoint}`;
+  const isRead = !options.method || options.method.toUpperCase() === 'GET';
   
-  if (!options.method || options.method.toUpperCase() === 'GET') {
+  if (isRead) {
     url += (url.includes('?') ? '&' : '?') + `_=${new Date().getTime()}`;
   }
 
-  const token = localStorage.getItem("customerAuthToken") || localStorage.getItem("authToken");
+  await ensureFreshToken();
+  const session = activeSession();
+  const token = session ? localStorage.getItem(SESSION_KEYS[session].token) : null;
 
   const headers: HeadersInit = {};
   
@@ -21,6 +131,10 @@ async function baseRequest<T>(endpoint: string, options: RequestInit = {}): Prom
   if (token) {
     headers['Authorization'] = `Bearer ${token}`;
   }
+
+  if (isRead && Date.now() - lastWriteAt < READ_YOUR_WRITES_WINDOW_MS) {
+    headers['X-Read-Your-Writes'] = 'true';
+  }
   
   Object.assign(headers, options.headers);
 
@@ -28,10 +142,18 @@ async function baseRequest<T>(endpoint: string, options: RequestInit = {}): Prom
 
   try {
     const response = await fetch(url, config);
+    // JWT rejeitado (ex.: relógio do aparelho fora de hora): renova uma vez e repete a requisição
+    if (response.status === 401 && session && !retried && !endpoint.includes('/auth/')
+        && await refreshSession(session)) {
+      return baseRequest<T>(endpoint, options, true);
+    }
     if (!response.ok) {
       const errorData = await response.json().catch(() => ({ message: `Erro ${response.status}: ${response.statusText}` }));
       throw new Error(errorData.message || 'Ocorreu um erro na requisição.');
     }
+    if (!isRead) {
+      lastWriteAt = Date.now();
+    }
     const text = await response.text();
     return text ? JSON.parse(text) : null;
   } catch (error) {
@@ -56,7 +178,9 @@ const customerApi = {
   login: (data: CustomerDtos.LoginRequest) => baseRequest<AuthDtos.LoginResponse>('/customer/auth/login', { method: 'POST', body: JSON.stringify(data) }),
   register: (data: CustomerDtos.RegisterRequest) => baseRequest<{ message: string }>('/customer/auth/register', { method: 'POST', body: JSON.stringify(data) }),
   createOrder: (orderData: OrderDtos.CreateOrderDto) => baseRequest<Order>('/orders', { method: 'POST', body: JSON.stringify(orderData) }),
-  getCustomerOrders: () => baseRequest<Order[]>('/customer/orders'),
+  getOrderHistory: (cursor: string | null, limit: number) =>
+    baseRequest<CursorPage<OrderSummary>>(`/customer/orders/history?limit=${limit}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`),
+  getOrderDetail: (id: string) => baseRequest<Order>(`/customer/orders/${id}`),
     forgotPassword: (email: string) => baseRequest<{ message: string }>('/customer/auth/forgot-password', { method: 'POST', body: JSON.stringify({ email }) }),
   resetPassword: (token: string, password: string) => baseRequest<{ message: string }>('/customer/auth/reset-password', { method: 'POST', body: JSON.stringify({ token, password }) }),
 };
@@ -95,7 +219,8 @@ const adminApi = {
   updatePizzaCrust: (id: string, data: MenuDtos.CrustUpdateRequest) => baseRequest<PizzaCrust>(`/admin/crusts/${id}`, { method: 'PUT', body: JSON.stringify(data) }),
   deletePizzaCrust: (id: string) => baseRequest<void>(`/admin/crusts/${id}`, { method: 'DELETE' }),
 
-  getAllCustomers: () => baseRequest<Customer[]>('/admin/customers'),
+  getCustomersPage: (page: number, size: number) => baseRequest<CustomerPage>(`/admin/customers/page?page=${page}&size=${size}`),
+  searchCustomers: (q: string, limit: number) => baseRequest<Customer[]>(`/admin/customers/search?q=${encodeURIComponent(q)}&limit=${limit}`),
   updateCustomer: (id: string, data: CustomerDtos.AdminCustomerUpdateRequest) => baseRequest<Customer>(`/admin/customers/${id}`, { method: 'PUT', body: JSON.stringify(data) }),
   deleteCustomer: (id: string) => baseRequest<void>(`/admin/customers/${id}`, { method: 'DELETE' }),
   
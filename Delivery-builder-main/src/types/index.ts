@@ -95,6 +95,7 @@ export interface CustomerUserDto {
   id: string;
   name: string;
   email: string;
+  whatsapp?: string;
 }
 
 export interface DeliveryAddress {
@@ -139,6 +140,19 @@ export interface Order {
   observations?: string;
 }
 
+export interface OrderSummary {
+  id: string;
+  createdAt: string;
+  status: OrderStatus;
+  totalAmount: number;
+  itemCount: number;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
 export interface Admin {
   id: string;
   username: string;
@@ -193,4 +207,12 @@ export interface Customer {
   totalOrders: number;
   totalSpent: number;
   // --- FIM DA ALTERAÇÃO ---
+}
+
+export interface CustomerPage {
+  items: Customer[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.pizzadelivery.backend.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache de respostas com validade curta e coalescência de requisições ("single flight").
+ *
+ * Chamadas concorrentes para a mesma chave compartilham um único cálculo: a primeira executa o loader e as
+ * demais aguardam o mesmo resultado. O resultado fica válido pelo TTL informado na chamada; falhas não são
+ * guardadas.
+ */
+public class SingleFlightCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Duration ttl, Supplier<T> loader) {
+        Entry candidate = new Entry();
+        Entry entry = entries.compute(key, (k, current) ->
+                current != null && current.isUsable(System.nanoTime()) ? current : candidate);
+
+        if (entry == candidate) {
+            try {
+                T value = loader.get();
+                candidate.expiresAtNanos = System.nanoTime() + ttl.toNanos();
+                candidate.future.complete(value);
+            } catch (Throwable e) {
+                // Inclui Error: sem isso a entrada ficaria em cálculo para sempre e travaria quem espera no join
+                entries.remove(key, candidate);
+                candidate.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return (T) entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long expiresAtNanos = Long.MAX_VALUE;
+
+        // Em cálculo (o prazo ainda não foi definido) ou dentro do prazo
+        private boolean isUsable(long nowNanos) {
+            return !future.isDone() || (!future.isCompletedExceptionally() && nowNanos - expiresAtNanos < 0);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.pizzadelivery.backend.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Decide se a conexão atual vai para a réplica de leitura ou para o banco principal.
+ *
+ * Transações {@code readOnly} vão para a réplica, a não ser que a thread esteja num escopo "ler do
+ * principal" — usado quando quem lê acabou de escrever e não pode ver a réplica atrasada
+ * (ex.: acompanhar o pedido logo após o checkout).
+ */
+public final class DataSourceRoute {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Integer> PRIMARY_SCOPES = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static Target current() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && PRIMARY_SCOPES.get() == null ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    /** Executa {@code action} lendo sempre do banco principal, inclusive em transações readOnly. */
+    public static <T> T onPrimary(Supplier<T> action) {
+        enterPrimaryScope();
+        try {
+            return action.get();
+        } finally {
+            exitPrimaryScope();
+        }
+    }
+
+    static void enterPrimaryScope() {
+        Integer depth = PRIMARY_SCOPES.get();
+        PRIMARY_SCOPES.set(depth == null ? 1 : depth + 1);
+    }
+
+    static void exitPrimaryScope() {
+        Integer depth = PRIMARY_SCOPES.get();
+        if (depth == null || depth <= 1) {
+            PRIMARY_SCOPES.remove();
+        } else {
+            PRIMARY_SCOPES.set(depth - 1);
+        }
+    }
+}
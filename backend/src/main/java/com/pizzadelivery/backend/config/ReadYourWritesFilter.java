@@ -0,0 +1,36 @@
+package com.pizzadelivery.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Requisições com o cabeçalho {@code X-Read-Your-Writes: true} leem do banco principal do começo ao fim.
+ * O apiService do frontend envia o cabeçalho nas leituras feitas até alguns segundos depois de uma escrita
+ * bem-sucedida (ex.: acompanhar o pedido recém-criado), quando a réplica pode ainda não ter recebido o dado.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!"true".equalsIgnoreCase(request.getHeader(HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        DataSourceRoute.enterPrimaryScope();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRoute.exitPrimaryScope();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.pizzadelivery.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Impede que a aplicação suba em produção com o Hibernate alterando o esquema.
+ * Em produção o esquema pertence exclusivamente às migrations do Flyway.
+ */
+@Component
+@RequiredArgsConstructor
+public class SchemaManagementGuard {
+
+    private static final Set<String> SAFE_DDL_MODES = Set.of("none", "validate");
+
+    private final Environment environment;
+
+    @PostConstruct
+    public void checkDdlAuto() {
+        if (!environment.acceptsProfiles(Profiles.of("prod", "production"))) {
+            return;
+        }
+        String ddlAuto = environment.getProperty("spring.jpa.hibernate.ddl-auto", "none").trim().toLowerCase();
+        if (!SAFE_DDL_MODES.contains(ddlAuto)) {
+            throw new IllegalStateException("spring.jpa.hibernate.ddl-auto=" + ddlAuto
+                    + " não é permitido em produção. Use 'validate' ou 'none' e altere o esquema via migrations.");
+        }
+    }
+}
@@ -3,16 +3,31 @@ package com.pizzadelivery.backend.controller;
 import com.pizzadelivery.backend.dto.*;
 import com.pizzadelivery.backend.entity.*;
 import com.pizzadelivery.backend.mappers.OrderMapper;
+import com.pizzadelivery.backend.notification.NotificationDispatcher;
+import com.pizzadelivery.backend.security.BoundedPasswordEncoder;
 import com.pizzadelivery.backend.service.CustomerService;
+import com.pizzadelivery.backend.service.CustomerStatsService;
+import com.pizzadelivery.backend.service.DailyCloseService;
 import com.pizzadelivery.backend.service.DashboardService;
+import com.pizzadelivery.backend.service.DispatchService;
 import com.pizzadelivery.backend.service.MenuService;
+import com.pizzadelivery.backend.service.OrderExportService;
 import com.pizzadelivery.backend.service.OrderService;
+import com.pizzadelivery.backend.service.SalesAnalyticsService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +41,13 @@ public class AdminController {
     private final OrderService orderService;
     private final MenuService menuService;
     private final CustomerService customerService;
+    private final DispatchService dispatchService;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final OrderExportService orderExportService;
+    private final DailyCloseService dailyCloseService;
+    private final CustomerStatsService customerStatsService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final BoundedPasswordEncoder passwordEncoder;
 
     @GetMapping("/dashboard/stats")
     public ResponseEntity<DashboardDtos.DashboardStats> getDashboardStats() {
@@ -42,6 +64,24 @@ public class AdminController {
         return ResponseEntity.ok(dashboardService.getSalesByPizzaTypeChartData());
     }
 
+    @GetMapping("/dashboard/live")
+    public ResponseEntity<List<DashboardDtos.MinuteActivity>> getLiveActivity(@RequestParam(defaultValue = "60") int minutes) {
+        return ResponseEntity.ok(dashboardService.getLiveActivity(minutes));
+    }
+
+    // Ex.: /analytics/sales?from=2025-01-01&to=2025-03-31&groupBy=month,pizzaType
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<List<AnalyticsDtos.SalesRow>> getSalesAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> groupBy) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.getSales(from, to, groupBy));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/orders")
     public ResponseEntity<List<ResponseDtos.OrderResponseDto>> getAllOrders() {
         List<Order> orders = orderService.getAllOrders();
@@ -51,6 +91,63 @@ public class AdminController {
         return ResponseEntity.ok(dtos);
     }
 
+    // Indicadores do cardápio; days limita aos últimos N dias (0 = toda a janela carregada)
+    @GetMapping("/analytics/menu/flavors")
+    public ResponseEntity<List<MenuAnalyticsDtos.FlavorPopularity>> getFlavorPopularity(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesAnalyticsService.getFlavorPopularity(days));
+    }
+
+    @GetMapping("/analytics/menu/extras")
+    public ResponseEntity<List<MenuAnalyticsDtos.ExtrasAttachRate>> getExtrasAttachRate(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesAnalyticsService.getExtrasAttachRate(days));
+    }
+
+    @GetMapping("/analytics/menu/crusts")
+    public ResponseEntity<List<MenuAnalyticsDtos.CrustTakeRate>> getCrustTakeRate(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesAnalyticsService.getCrustTakeRate(days));
+    }
+
+    @GetMapping("/analytics/menu/heatmap")
+    public ResponseEntity<MenuAnalyticsDtos.OrderHeatmap> getOrderHeatmap(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(salesAnalyticsService.getOrderHeatmap(days));
+    }
+
+    // Ex.: /orders/export?from=2025-01-01&to=2025-01-31&format=csv&gzip=true
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String fileName = "pedidos_" + from + "_" + to + (exportFormat == OrderExportService.Format.CSV ? ".csv" : ".ndjson")
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == OrderExportService.Format.CSV ? MediaType.parseMediaType("text/csv; charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        // Exportações grandes levam minutos: só esta requisição ganha um prazo assíncrono maior
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(orderExportService.timeout().toMillis());
+        }
+        StreamingResponseBody body = out -> orderExportService.export(from, to, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
     @PatchMapping("/orders/{id}/status")
     public ResponseEntity<ResponseDtos.OrderResponseDto> updateOrderStatus(@PathVariable String id, @RequestBody OrderDtos.OrderStatusUpdate statusUpdate) {
         return orderService.updateOrderStatus(id, statusUpdate.status())
@@ -59,9 +156,69 @@ public class AdminController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/customers")
-    public ResponseEntity<List<CustomerDtos.CustomerResponseDto>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    // --- DESPACHO ---
+    @GetMapping("/dispatch/batches")
+    public ResponseEntity<List<DispatchDtos.ProposedBatch>> getProposedBatches() {
+        return ResponseEntity.ok(dispatchService.getProposedBatches());
+    }
+
+    @PostMapping("/dispatch/batches/{batchId}/assign")
+    public ResponseEntity<DispatchDtos.BatchAssignment> assignBatch(@PathVariable String batchId, @RequestBody DispatchDtos.AssignBatchRequest request) {
+        if (request.courierName() == null || request.courierName().isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(dispatchService.assignBatch(batchId, request.courierName()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/close-reports")
+    public ResponseEntity<List<DailyCloseReport>> getCloseReports(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dailyCloseService.getReports(from, to));
+    }
+
+    // Gera (ou gera de novo) o fechamento de um dia
+    @PostMapping("/close-reports/{day}")
+    public ResponseEntity<DailyCloseReport> closeDay(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        if (day.isAfter(LocalDate.now())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(dailyCloseService.close(day));
+    }
+
+    // Ocupação do pool de hash de senha; perto de 1 com rejeições subindo indica ataque de força bruta
+    @GetMapping("/metrics/password-hashing")
+    public ResponseEntity<AuthDtos.PasswordHashingStats> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.stats());
+    }
+
+    // Avisos ao cliente que não foram entregues, mais recentes primeiro
+    @GetMapping("/notifications/dead-letters")
+    public ResponseEntity<List<NotificationDeadLetter>> getNotificationDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(notificationDispatcher.getDeadLetters(limit));
+    }
+
+    @GetMapping("/customers/page")
+    public ResponseEntity<CustomerDtos.CustomerPage> getCustomersPage(@RequestParam(required = false) Integer page,
+                                                                     @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(customerService.getCustomersPage(page, size));
+    }
+
+    // Ex.: /customers/search?q=jose ou /customers/search?q=(11) 9876
+    @GetMapping("/customers/search")
+    public ResponseEntity<List<CustomerDtos.CustomerResponseDto>> searchCustomers(@RequestParam String q,
+                                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(customerService.searchCustomers(q, limit));
+    }
+
+    // Recalcula customer_stats a partir dos pedidos; devolve quantos clientes foram carregados
+    @PostMapping("/customers/stats/rebuild")
+    public ResponseEntity<Integer> rebuildCustomerStats() {
+        return ResponseEntity.ok(customerStatsService.rebuild());
     }
 
     @PutMapping("/customers/{id}")
@@ -0,0 +1,28 @@
+package com.pizzadelivery.backend.controller;
+
+import com.pizzadelivery.backend.security.PasswordHashingSaturatedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Respostas de erro escritas direto pela aplicação.
+ *
+ * Não usa {@code sendError}: o despacho para /error passa pela cadeia de segurança, e para as rotas
+ * anônimas (login, cadastro) o cliente receberia o redirecionamento do OAuth2 em vez do status.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(PasswordHashingSaturatedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingSaturated(PasswordHashingSaturatedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(PasswordHashingSaturatedException.RETRY_AFTER_SECONDS))
+                .body(Collections.singletonMap("message", "Muitas tentativas de login no momento. Tente novamente em instantes."));
+    }
+}
@@ -2,8 +2,11 @@ package com.pizzadelivery.backend.controller;
 
 import com.pizzadelivery.backend.dto.AuthDtos;
 import com.pizzadelivery.backend.service.AuthService;
+import com.pizzadelivery.backend.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -12,9 +15,26 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:8080") // Frontend URL
 public class AuthController {
     private final AuthService authService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/login")
     public ResponseEntity<AuthDtos.LoginResponse> login(@RequestBody AuthDtos.LoginRequest loginRequest) {
         return ResponseEntity.ok(authService.login(loginRequest));
     }
+
+    // Troca o token de renovação por um JWT novo e outro token de renovação (admin e cliente)
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthDtos.TokenResponse> refresh(@RequestBody AuthDtos.RefreshRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.refresh(refreshRequest.refreshToken()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody AuthDtos.RefreshRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,10 +1,11 @@
 package com.pizzadelivery.backend.controller;
 
 import com.pizzadelivery.backend.dto.CustomerDtos;
-import com.pizzadelivery.backend.entity.CustomerUser;
-import com.pizzadelivery.backend.repository.CustomerUserRepository;
 import com.pizzadelivery.backend.security.JwtTokenProvider;
+import com.pizzadelivery.backend.security.PasswordHashingSaturatedException;
+import com.pizzadelivery.backend.security.PrincipalCache;
 import com.pizzadelivery.backend.service.CustomerService;
+import com.pizzadelivery.backend.service.RefreshTokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -24,7 +25,8 @@ public class CustomerAuthController {
     private final CustomerService customerService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomerUserRepository customerUserRepository;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> register(@Valid @RequestBody CustomerDtos.RegisterRequest req) {
@@ -32,6 +34,8 @@ public class CustomerAuthController {
             customerService.register(req);
             Map<String, String> response = Collections.singletonMap("message", "Usuário registrado com sucesso!");
             return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (PasswordHashingSaturatedException e) {
+            throw e;
         } catch (RuntimeException e) {
             // REFACTOR: Captura a exceção e retorna um erro 409 (Conflict) com uma mensagem clara.
             Map<String, String> errorResponse = Collections.singletonMap("message", e.getMessage());
@@ -45,12 +49,13 @@ public class CustomerAuthController {
                 new UsernamePasswordAuthenticationToken(req.email(), req.password())
         );
 
-        String token = jwtTokenProvider.createToken(authentication);
-
-        CustomerUser user = customerUserRepository.findByEmail(req.email())
+        PrincipalCache.CustomerPrincipal user = principalCache.findCustomer(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("Erro inesperado ao buscar usuário após login."));
 
-        return ResponseEntity.ok(new CustomerDtos.LoginResponse(token, user.getName(), user.getEmail()));
+        String token = jwtTokenProvider.createToken(authentication, user.customerId());
+
+        return ResponseEntity.ok(new CustomerDtos.LoginResponse(token, user.name(), authentication.getName(),
+                refreshTokenService.issue(authentication)));
     }
 
     @PostMapping("/forgot-password")
@@ -74,6 +79,8 @@ public class CustomerAuthController {
             String newPassword = payload.get("password");
             customerService.completePasswordReset(token, newPassword);
             return ResponseEntity.ok(Collections.singletonMap("message", "Senha redefinida com sucesso!"));
+        } catch (PasswordHashingSaturatedException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Collections.singletonMap("message", e.getMessage()));
         }
@@ -1,18 +1,19 @@
 package com.pizzadelivery.backend.controller;
 
 import com.pizzadelivery.backend.dto.ResponseDtos;
-import com.pizzadelivery.backend.entity.Order;
 import com.pizzadelivery.backend.mappers.OrderMapper;
+import com.pizzadelivery.backend.security.PrincipalCache;
 import com.pizzadelivery.backend.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,19 +23,35 @@ import java.util.stream.Collectors;
 public class CustomerProfileController {
 
     private final CustomerService customerService;
+    private final PrincipalCache principalCache;
 
-    @GetMapping("/orders")
-    public ResponseEntity<List<ResponseDtos.OrderResponseDto>> getOrderHistory(Authentication authentication) {
-        if (authentication == null || authentication.getName() == null) {
-            return ResponseEntity.ok(Collections.emptyList());
+    // Histórico resumido e paginado; os detalhes de cada pedido ficam em /orders/{id}
+    @GetMapping("/orders/history")
+    public ResponseEntity<ResponseDtos.CursorPage<ResponseDtos.OrderSummaryDto>> getOrderHistoryPage(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        String customerId = principalCache.customerIdOf(authentication).orElse(null);
+        if (customerId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        try {
+            return ResponseEntity.ok(customerService.findOrderSummariesForCustomer(customerId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
 
-        List<Order> orders = customerService.findOrdersForCustomer(authentication.getName());
-        List<ResponseDtos.OrderResponseDto> orderDtos = orders.stream()
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<ResponseDtos.OrderResponseDto> getOrderDetail(Authentication authentication, @PathVariable String id) {
+        String customerId = principalCache.customerIdOf(authentication).orElse(null);
+        if (customerId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return customerService.findOrderForCustomer(customerId, id)
                 .map(OrderMapper::toDto)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(orderDtos);
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // ***** MÉTODO DE DEBUG ADICIONADO *****
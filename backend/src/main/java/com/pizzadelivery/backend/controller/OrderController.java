@@ -4,18 +4,20 @@ import com.pizzadelivery.backend.dto.OrderDtos;
 import com.pizzadelivery.backend.dto.ResponseDtos;
 import com.pizzadelivery.backend.entity.Order;
 import com.pizzadelivery.backend.mappers.OrderMapper;
+import com.pizzadelivery.backend.security.PrincipalCache;
 import com.pizzadelivery.backend.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final PrincipalCache principalCache;
 
     // Endpoint público para rastrear UM pedido por ID.
     @GetMapping("/{id}")
@@ -28,11 +30,12 @@ public class OrderController {
 
     // Endpoint para um CLIENTE criar um pedido. Requer autenticação.
     @PostMapping
-    public ResponseEntity<ResponseDtos.OrderResponseDto> createOrder(@RequestBody OrderDtos.CreateOrderDto orderDto, Principal principal) {
-        if (principal == null || principal.getName() == null) {
+    public ResponseEntity<ResponseDtos.OrderResponseDto> createOrder(@RequestBody OrderDtos.CreateOrderDto orderDto, Authentication authentication) {
+        String customerId = principalCache.customerIdOf(authentication).orElse(null);
+        if (customerId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        Order createdOrder = orderService.createOrder(orderDto, principal.getName());
+        Order createdOrder = orderService.createOrder(orderDto, customerId);
         return ResponseEntity.status(HttpStatus.CREATED).body(OrderMapper.toDto(createdOrder));
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.pizzadelivery.backend.dto;
+
+import java.util.Map;
+
+public class AnalyticsDtos {
+
+    /**
+     * Linha do relatório de vendas.
+     * @param dimensions Valor de cada dimensão pedida em groupBy, na ordem pedida.
+     * @param quantity Unidades vendidas (pizzas de vários sabores contam fracionadas por sabor).
+     * @param revenue Receita no período.
+     */
+    public record SalesRow(Map<String, Object> dimensions, double quantity, double revenue) {}
+}
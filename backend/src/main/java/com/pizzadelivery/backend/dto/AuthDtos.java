@@ -2,5 +2,11 @@ package com.pizzadelivery.backend.dto;
 
 public class AuthDtos {
     public record LoginRequest(String username, String password) {}
-    public record LoginResponse(String token, String name) {}
+    public record LoginResponse(String token, String name, String refreshToken) {}
+    public record RefreshRequest(String refreshToken) {}
+    public record TokenResponse(String token, String refreshToken) {}
+
+    // Ocupação do pool de hash de senha (utilization = threads ocupadas / threads do pool)
+    public record PasswordHashingStats(int poolSize, int active, int queued, int queueCapacity,
+                                       double utilization, long completed, long rejected) {}
 }
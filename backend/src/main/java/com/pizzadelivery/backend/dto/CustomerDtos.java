@@ -17,7 +17,7 @@ public class CustomerDtos {
 
     public record LoginRequest(@Email String email, @NotEmpty String password) {}
 
-    public record LoginResponse(String token, String name, String email) {}
+    public record LoginResponse(String token, String name, String email, String refreshToken) {}
 
     public record AdminCustomerUpdateRequest(
             @NotEmpty String name,
@@ -53,8 +53,19 @@ public class CustomerDtos {
             LocalDateTime createdAt,
             // --- INÍCIO DA ALTERAÇÃO ---
             int totalOrders,
-            double totalSpent
+            double totalSpent,
             // --- FIM DA ALTERAÇÃO ---
+            LocalDateTime firstOrderAt,
+            LocalDateTime lastOrderAt,
+            double averageTicket
     ) {}
     // --- FIM DA ALTERAÇÃO ---
-}
\ No newline at end of file
+
+    public record CustomerPage(
+            List<CustomerResponseDto> items,
+            int page,
+            int size,
+            long totalElements,
+            int totalPages
+    ) {}
+}
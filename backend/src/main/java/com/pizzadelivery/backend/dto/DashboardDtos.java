@@ -1,6 +1,7 @@
 package com.pizzadelivery.backend.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class DashboardDtos {
     public record Revenue(double today, double week, double month) {}
@@ -21,4 +22,12 @@ public class DashboardDtos {
      * @param count A quantidade de vezes que foi pedida.
      */
     public record SalesByPizzaType(String pizzaTypeName, long count) {}
-}
\ No newline at end of file
+
+    /**
+     * DTO com a atividade de um minuto para o painel ao vivo.
+     * @param minute O início do minuto.
+     * @param orders Pedidos criados no minuto.
+     * @param revenue A receita desses pedidos.
+     */
+    public record MinuteActivity(LocalDateTime minute, long orders, double revenue) {}
+}
@@ -0,0 +1,23 @@
+package com.pizzadelivery.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DispatchDtos {
+
+    // Pedido de entrega pronto para sair (projeção do OrderRepository)
+    public record DispatchCandidate(String orderId, String zipCode, String neighborhood, LocalDateTime readySince) {}
+
+    /**
+     * Lote proposto para um entregador.
+     * @param batchId Identificador do lote, usado na atribuição.
+     * @param zone Zona de agrupamento (prefixo do CEP ou bairro).
+     * @param orderIds Pedidos do lote, do mais antigo para o mais recente.
+     * @param oldestReadySince Momento em que o pedido mais antigo ficou disponível.
+     */
+    public record ProposedBatch(String batchId, String zone, List<String> orderIds, LocalDateTime oldestReadySince) {}
+
+    public record AssignBatchRequest(String courierName) {}
+
+    public record BatchAssignment(String batchId, String courierName, List<String> orderIds, LocalDateTime dispatchedAt) {}
+}
@@ -0,0 +1,26 @@
+package com.pizzadelivery.backend.dto;
+
+import java.util.List;
+
+public class MenuAnalyticsDtos {
+
+    /**
+     * Popularidade de um sabor.
+     * @param pizzas Pizzas que levaram o sabor.
+     * @param weightedPizzas Pizzas ponderadas pela fração do sabor (meia-meia conta 0,5 para cada sabor).
+     */
+    public record FlavorPopularity(String flavor, long pizzas, double weightedPizzas) {}
+
+    /** Fração das pizzas de um tipo que levaram ao menos um adicional. */
+    public record ExtrasAttachRate(String pizzaType, long pizzas, long pizzasWithExtras, double attachRate) {}
+
+    /** Fração das pizzas de um tipo feitas com cada borda ("Sem borda" quando nenhuma foi escolhida). */
+    public record CrustTakeRate(String pizzaType, String crust, long pizzas, double takeRate) {}
+
+    /**
+     * Pedidos por dia da semana × hora do dia.
+     * @param weekdays Rótulos das linhas, de segunda a domingo.
+     * @param orders orders[dia da semana][hora].
+     */
+    public record OrderHeatmap(List<String> weekdays, long[][] orders) {}
+}
@@ -7,13 +7,45 @@ import com.pizzadelivery.backend.entity.Payment;
 import com.pizzadelivery.backend.enums.DeliveryType;
 import com.pizzadelivery.backend.enums.OrderItemType;
 import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.enums.PaymentMethod;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class OrderDtos {
 
     public record OrderStatusUpdate(OrderStatus status) {}
 
+    // Contagem de pedidos por status (projeção do OrderRepository)
+    public record StatusCount(OrderStatus status, long count) {}
+
+    // Linha da exportação de pedidos (projeção lida em streaming, sem passar pelo contexto de persistência)
+    public record ExportRow(
+            String id,
+            LocalDateTime createdAt,
+            OrderStatus status,
+            DeliveryType deliveryType,
+            PaymentMethod paymentMethod,
+            double totalAmount,
+            int itemCount,
+            String customerName,
+            String customerEmail,
+            String neighborhood,
+            String city,
+            String zipCode,
+            String courierName,
+            LocalDateTime dispatchedAt
+    ) {}
+
+    // Campos de um pedido usados no fechamento do dia
+    public record CloseRow(
+            OrderStatus status,
+            DeliveryType deliveryType,
+            PaymentMethod paymentMethod,
+            String cardBrand,
+            double totalAmount
+    ) {}
+
     public record ExtraSelectionDto(
             String extraId,
             String flavorId // Pode ser nulo se o adicional for na pizza toda
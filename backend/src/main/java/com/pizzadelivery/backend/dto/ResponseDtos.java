@@ -1,6 +1,9 @@
 package com.pizzadelivery.backend.dto;
 
-import com.pizzadelivery.backend.entity.*;
+import com.pizzadelivery.backend.entity.DeliveryAddress;
+import com.pizzadelivery.backend.entity.OrderLineSnapshot.CatalogRef;
+import com.pizzadelivery.backend.entity.OrderLineSnapshot.PizzaTypeRef;
+import com.pizzadelivery.backend.entity.Payment;
 import com.pizzadelivery.backend.enums.DeliveryType;
 import com.pizzadelivery.backend.enums.OrderItemType;
 import com.pizzadelivery.backend.enums.OrderStatus;
@@ -10,24 +13,24 @@ import java.util.List;
 
 public class ResponseDtos {
 
-    public record CustomerUserDto(String id, String name, String email) {}
+    public record CustomerUserDto(String id, String name, String email, String whatsapp) {}
 
     public record AppliedExtraDto(
-            PizzaExtra extra,
-            PizzaFlavor onFlavor
+            CatalogRef extra,
+            CatalogRef onFlavor
     ) {}
 
-    // DTO Corrigido para OrderItem
+    // DTO do item renderizado a partir da fotografia gravada no pedido
     public record OrderItemDto(
             String id,
             OrderItemType itemType,
             // Campos de Pizza (podem ser nulos)
-            PizzaType pizzaType,
-            List<PizzaFlavor> flavors,
+            PizzaTypeRef pizzaType,
+            List<CatalogRef> flavors,
             List<AppliedExtraDto> appliedExtras,
-            PizzaCrust crust,
+            CatalogRef crust,
             // Campo de Bebida (pode ser nulo)
-            Beverage beverage,
+            CatalogRef beverage,
             // Campos Comuns
             String observations,
             int quantity,
@@ -47,4 +50,20 @@ public class ResponseDtos {
             double totalAmount,
             String observations
     ) {}
+
+    // Resumo de pedido para o histórico do cliente (sem itens)
+    public record OrderSummaryDto(
+            String id,
+            LocalDateTime createdAt,
+            OrderStatus status,
+            double totalAmount,
+            int itemCount
+    ) {}
+
+    /**
+     * Página de resultados paginada por cursor.
+     * @param items Os itens da página.
+     * @param nextCursor Cursor opaco para buscar a próxima página; nulo quando não há mais resultados.
+     */
+    public record CursorPage<T>(List<T> items, String nextCursor) {}
 }
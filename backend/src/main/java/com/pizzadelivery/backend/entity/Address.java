@@ -29,4 +29,25 @@ public class Address {
     @JoinColumn(name = "customer_user_id")
     @JsonIgnore
     private CustomerUser customer;
+
+    // CEP (só dígitos) + rua + número normalizados; único por cliente, evita endereços repetidos
+    @JsonIgnore
+    @Column(nullable = false)
+    private String fingerprint;
+
+    @PrePersist
+    @PreUpdate
+    private void updateFingerprint() {
+        fingerprint = fingerprintOf(zipCode, street, number);
+    }
+
+    public static String fingerprintOf(String zipCode, String street, String number) {
+        return nullToEmpty(TextNormalization.digitsOnly(zipCode)) + "|"
+                + nullToEmpty(TextNormalization.foldText(street)) + "|"
+                + nullToEmpty(TextNormalization.foldText(number));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
 }
@@ -0,0 +1,36 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totais de pedidos de um cliente, mantidos pelo CustomerStatsService na mesma transação que cria ou
+ * cancela o pedido. Pedidos cancelados não contam nos totais; primeiro e último pedido consideram
+ * todos os pedidos feitos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "customer_stats")
+public class CustomerStats {
+    @Id
+    private String customerUserId;
+
+    private long totalOrders;
+    private double totalSpent;
+    private LocalDateTime firstOrderAt;
+    private LocalDateTime lastOrderAt;
+
+    public double getAverageTicket() {
+        return totalOrders > 0 ? totalSpent / totalOrders : 0;
+    }
+}
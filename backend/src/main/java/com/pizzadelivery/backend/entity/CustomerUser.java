@@ -10,6 +10,7 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Data
 @Builder
@@ -52,9 +53,25 @@ public class CustomerUser {
     private LocalDateTime createdAt;
     // --- FIM DA CORREÇÃO ---
 
-    private String passwordResetToken;
-    private LocalDateTime passwordResetTokenExpiry;
-
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Address> addresses;
-}
\ No newline at end of file
+
+    // Colunas normalizadas para a busca do admin (índices de prefixo), recalculadas a cada gravação
+    @JsonIgnore
+    private String searchName;
+    @JsonIgnore
+    private String searchEmail;
+    @JsonIgnore
+    private String searchWhatsapp;
+    @JsonIgnore
+    private String searchCpf;
+
+    @PrePersist
+    @PreUpdate
+    private void updateSearchColumns() {
+        searchName = TextNormalization.foldText(name);
+        searchEmail = email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+        searchWhatsapp = TextNormalization.digitsOnly(whatsapp);
+        searchCpf = TextNormalization.digitsOnly(cpf);
+    }
+}
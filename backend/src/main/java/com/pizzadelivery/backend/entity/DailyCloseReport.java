@@ -0,0 +1,54 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Fechamento do dia, gerado pelo DailyCloseService. Receitas consideram apenas pedidos não cancelados;
+ * os cancelados aparecem à parte. Gerar de novo o mesmo dia substitui o registro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "daily_close_reports")
+public class DailyCloseReport {
+    @Id
+    private LocalDate day;
+
+    private LocalDateTime generatedAt;
+
+    private long orderCount;
+    private double revenue;
+    private double averageTicket;
+
+    private long deliveryCount;
+    private double deliveryRevenue;
+    private long pickupCount;
+    private double pickupRevenue;
+
+    private long cancelledCount;
+    private double cancelledAmount;
+
+    // Receita por forma de pagamento (CASH, CARD) e, dentro de cartão, por bandeira
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "revenue_by_payment_method")
+    private Map<String, Double> revenueByPaymentMethod;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "revenue_by_card_brand")
+    private Map<String, Double> revenueByCardBrand;
+}
@@ -0,0 +1,44 @@
+package com.pizzadelivery.backend.entity;
+
+import com.pizzadelivery.backend.enums.EmailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * E-mail na fila de saída. É gravado na mesma transação que o originou e enviado depois pelo
+ * EmailOutboxDispatcher. Em SENDING, {@code nextAttemptAt} é o fim do prazo de envio: se a instância cair
+ * no meio do envio, a mensagem volta a ser elegível quando o prazo vencer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String recipient;
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    private EmailOutboxStatus status;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,42 @@
+package com.pizzadelivery.backend.entity;
+
+import com.pizzadelivery.backend.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** Aviso ao cliente que não pôde ser entregue (fila do canal cheia ou tentativas esgotadas). */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_dead_letters")
+public class NotificationDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    private String channel;
+    private String orderId;
+    private String customerId;
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime failedAt;
+}
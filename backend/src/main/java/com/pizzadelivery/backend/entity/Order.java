@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,10 +24,15 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id") // Garante a chave estrangeira na tabela OrderItem
     private List<OrderItem> items;
 
+    // Fotografia dos itens no momento da compra; é dela que o pedido é renderizado
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "line_snapshots")
+    private List<OrderLineSnapshot> lineSnapshots;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_user_id")
     private CustomerUser customerUser;
@@ -45,4 +53,12 @@ public class Order {
     private LocalDateTime estimatedDeliveryTime;
     private double totalAmount;
     private String observations;
+
+    // Soma das quantidades dos itens, mantida para as listagens resumidas
+    private int itemCount;
+
+    // Despacho: preenchidos quando o pedido sai em um lote de entrega
+    private String courierName;
+    private String dispatchBatchId;
+    private LocalDateTime dispatchedAt;
 }
\ No newline at end of file
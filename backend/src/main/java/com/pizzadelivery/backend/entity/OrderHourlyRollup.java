@@ -0,0 +1,34 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totais de pedidos por hora de criação (início da hora): quantidade, faturamento e contagem por status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_hourly_rollups")
+public class OrderHourlyRollup {
+    @Id
+    private LocalDateTime hourStart;
+
+    private long orderCount;
+    private double revenue;
+
+    private long receivedCount;
+    private long preparingCount;
+    private long outForDeliveryCount;
+    private long completedCount;
+    private long cancelledCount;
+}
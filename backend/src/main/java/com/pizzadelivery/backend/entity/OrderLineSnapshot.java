@@ -0,0 +1,121 @@
+package com.pizzadelivery.backend.entity;
+
+import com.pizzadelivery.backend.enums.OrderItemType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fotografia imutável de um item do pedido no momento da compra.
+ * É gravada como JSON na própria tabela de pedidos, de modo que alterações
+ * de preço ou nome no cardápio não reescrevem o histórico e a leitura de
+ * um pedido não precisa de joins com as tabelas do catálogo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineSnapshot {
+
+    private String id;
+    private OrderItemType itemType;
+
+    // Campos para PIZZA
+    private PizzaTypeRef pizzaType;
+    private List<CatalogRef> flavors;
+    private List<AppliedExtraRef> appliedExtras;
+    private CatalogRef crust;
+
+    // Campo para BEBIDA
+    private CatalogRef beverage;
+
+    // Campos comuns
+    private String observations;
+    private int quantity;
+    private double totalPrice;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PizzaTypeRef {
+        private String id;
+        private String name;
+        private String description;
+        private double basePrice;
+        private String imageUrl;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CatalogRef {
+        private String id;
+        private String name;
+        private String description;
+        private double price;
+        private String imageUrl;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AppliedExtraRef {
+        private CatalogRef extra;
+        private CatalogRef onFlavor;
+    }
+
+    public static OrderLineSnapshot of(OrderItem item) {
+        List<CatalogRef> flavors = item.getFlavors() != null
+                ? item.getFlavors().stream().map(OrderLineSnapshot::ref).collect(Collectors.toList())
+                : Collections.emptyList();
+
+        List<AppliedExtraRef> appliedExtras = item.getAppliedExtras() != null
+                ? item.getAppliedExtras().stream()
+                        .map(applied -> new AppliedExtraRef(ref(applied.getExtra()), ref(applied.getAppliedToFlavor())))
+                        .collect(Collectors.toList())
+                : Collections.emptyList();
+
+        return OrderLineSnapshot.builder()
+                .id(item.getId())
+                .itemType(item.getItemType())
+                .pizzaType(ref(item.getPizzaType()))
+                .flavors(flavors)
+                .appliedExtras(appliedExtras)
+                .crust(ref(item.getCrust()))
+                .beverage(ref(item.getBeverage()))
+                .observations(item.getObservations())
+                .quantity(item.getQuantity())
+                .totalPrice(item.getTotalPrice())
+                .build();
+    }
+
+    private static PizzaTypeRef ref(PizzaType type) {
+        return type == null ? null
+                : new PizzaTypeRef(type.getId(), type.getName(), type.getDescription(), type.getBasePrice(), type.getImageUrl());
+    }
+
+    private static CatalogRef ref(PizzaFlavor flavor) {
+        return flavor == null ? null
+                : new CatalogRef(flavor.getId(), flavor.getName(), flavor.getDescription(), flavor.getPrice(), flavor.getImageUrl());
+    }
+
+    private static CatalogRef ref(PizzaExtra extra) {
+        return extra == null ? null
+                : new CatalogRef(extra.getId(), extra.getName(), extra.getDescription(), extra.getPrice(), null);
+    }
+
+    private static CatalogRef ref(PizzaCrust crust) {
+        return crust == null ? null
+                : new CatalogRef(crust.getId(), crust.getName(), crust.getDescription(), crust.getPrice(), null);
+    }
+
+    private static CatalogRef ref(Beverage beverage) {
+        return beverage == null ? null
+                : new CatalogRef(beverage.getId(), beverage.getName(), beverage.getDescription(), beverage.getPrice(), beverage.getImageUrl());
+    }
+}
@@ -0,0 +1,31 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token de redefinição de senha. Só o hash SHA-256 do token é gravado (ver OpaqueTokens) e ele é a chave
+ * primária, de modo que validar um token é uma única busca indexada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "password_reset_tokens")
+public class PasswordResetToken {
+    @Id
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "customer_user_id")
+    private CustomerUser customerUser;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,40 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token de renovação de sessão. Como os tokens de redefinição, só o hash SHA-256 é gravado (ver OpaqueTokens).
+ *
+ * Cada uso troca o token por um novo da mesma família ({@code familyId}) e marca o anterior como revogado.
+ * Apresentar de novo um token já trocado, passado o curto prazo de tolerância para abas concorrentes, indica
+ * vazamento, e a família inteira é revogada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String tokenHash;
+
+    private String familyId;
+
+    // Username do admin ou e-mail do cliente, como no "sub" do JWT
+    private String subject;
+    private String role;
+
+    private LocalDateTime createdAt;
+    // Prazo deslizante: renovado a cada troca, limitado por familyExpiresAt
+    private LocalDateTime expiresAt;
+    private LocalDateTime familyExpiresAt;
+    private LocalDateTime revokedAt;
+    private String replacedByHash;
+}
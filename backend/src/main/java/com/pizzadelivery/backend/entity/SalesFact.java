@@ -0,0 +1,48 @@
+package com.pizzadelivery.backend.entity;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Fato de vendas pré-agregado: dia × tipo de item × tipo de pizza × sabor × canal × forma de pagamento.
+ *
+ * Pizzas de vários sabores têm quantidade e receita divididas igualmente entre os sabores, de modo que a
+ * soma sobre qualquer dimensão bate com o total vendido. Para bebidas, {@code flavor} guarda o nome da bebida
+ * e {@code pizzaType} fica vazio. Dimensões ausentes são gravadas como texto vazio (fazem parte da chave).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_facts")
+public class SalesFact {
+
+    @EmbeddedId
+    private Key key;
+
+    private double quantity;
+    private double revenue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String itemType;
+        private String pizzaType;
+        private String flavor;
+        private String channel;
+        private String paymentMethod;
+    }
+}
@@ -0,0 +1,31 @@
+package com.pizzadelivery.backend.entity;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalização de texto usada nas colunas derivadas (busca de clientes, impressão digital de endereço).
+ * As migrações que preenchem essas colunas reproduzem as mesmas regras em SQL.
+ */
+public final class TextNormalization {
+
+    private TextNormalization() {
+    }
+
+    /** Minúsculas, sem acentos e com espaços simples: "  José  Antônio" vira "jose antonio". */
+    public static String foldText(String text) {
+        if (text == null) {
+            return null;
+        }
+        String withoutAccents = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    public static String digitsOnly(String text) {
+        if (text == null) {
+            return null;
+        }
+        String digits = text.replaceAll("\\D", "");
+        return digits.isEmpty() ? null : digits;
+    }
+}
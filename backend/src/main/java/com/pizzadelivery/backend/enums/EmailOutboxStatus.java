@@ -0,0 +1,8 @@
+package com.pizzadelivery.backend.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
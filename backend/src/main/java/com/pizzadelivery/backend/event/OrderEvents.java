@@ -0,0 +1,32 @@
+package com.pizzadelivery.backend.event;
+
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eventos de domínio publicados pelo OrderService.
+ * Carregam apenas valores (nunca entidades), pois muitos ouvintes rodam após o commit ou em outras threads.
+ */
+public class OrderEvents {
+
+    public record OrderCreated(
+            String orderId,
+            String customerId,
+            DeliveryType deliveryType,
+            LocalDateTime createdAt,
+            double totalAmount
+    ) {}
+
+    public record OrderStatusChanged(
+            String orderId,
+            String customerId,
+            DeliveryType deliveryType,
+            OrderStatus previousStatus,
+            OrderStatus newStatus,
+            LocalDateTime createdAt,
+            double totalAmount,
+            LocalDateTime changedAt
+    ) {}
+}
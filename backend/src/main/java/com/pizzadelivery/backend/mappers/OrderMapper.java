@@ -2,6 +2,7 @@ package com.pizzadelivery.backend.mappers;
 
 import com.pizzadelivery.backend.dto.ResponseDtos;
 import com.pizzadelivery.backend.entity.Order;
+import com.pizzadelivery.backend.entity.OrderLineSnapshot;
 import com.pizzadelivery.backend.enums.OrderItemType;
 
 import java.util.Collections;
@@ -15,37 +16,15 @@ public class OrderMapper {
             return null;
         }
 
-        List<ResponseDtos.OrderItemDto> itemDtos = order.getItems().stream()
-                .map(item -> {
-                    // Mapeia os adicionais apenas se o item for uma Pizza
-                    List<ResponseDtos.AppliedExtraDto> appliedExtrasDto = Collections.emptyList();
-                    if (item.getItemType() == OrderItemType.PIZZA && item.getAppliedExtras() != null) {
-                        appliedExtrasDto = item.getAppliedExtras().stream()
-                                .map(appliedExtra -> new ResponseDtos.AppliedExtraDto(
-                                        appliedExtra.getExtra(),
-                                        appliedExtra.getAppliedToFlavor()
-                                ))
-                                .collect(Collectors.toList());
-                    }
-
-                    return new ResponseDtos.OrderItemDto(
-                            item.getId(),
-                            item.getItemType(),
-                            item.getPizzaType(),
-                            item.getFlavors(),
-                            appliedExtrasDto,
-                            item.getCrust(),
-                            item.getBeverage(),
-                            item.getObservations(),
-                            item.getQuantity(),
-                            item.getTotalPrice()
-                    );
-                }).collect(Collectors.toList());
+        List<ResponseDtos.OrderItemDto> itemDtos = snapshotsOf(order).stream()
+                .map(OrderMapper::toItemDto)
+                .collect(Collectors.toList());
 
         var customerDto = new ResponseDtos.CustomerUserDto(
                 order.getCustomerUser().getId(),
                 order.getCustomerUser().getName(),
-                order.getCustomerUser().getEmail()
+                order.getCustomerUser().getEmail(),
+                order.getCustomerUser().getWhatsapp()
         );
 
         return new ResponseDtos.OrderResponseDto(
@@ -62,4 +41,38 @@ public class OrderMapper {
                 order.getObservations()
         );
     }
+
+    // Pedidos anteriores à fotografia não têm a coluna preenchida; só nesses casos recorremos ao catálogo.
+    private static List<OrderLineSnapshot> snapshotsOf(Order order) {
+        if (order.getLineSnapshots() != null) {
+            return order.getLineSnapshots();
+        }
+        if (order.getItems() == null) {
+            return Collections.emptyList();
+        }
+        return order.getItems().stream().map(OrderLineSnapshot::of).collect(Collectors.toList());
+    }
+
+    private static ResponseDtos.OrderItemDto toItemDto(OrderLineSnapshot line) {
+        // Mapeia os adicionais apenas se o item for uma Pizza
+        List<ResponseDtos.AppliedExtraDto> appliedExtrasDto = Collections.emptyList();
+        if (line.getItemType() == OrderItemType.PIZZA && line.getAppliedExtras() != null) {
+            appliedExtrasDto = line.getAppliedExtras().stream()
+                    .map(applied -> new ResponseDtos.AppliedExtraDto(applied.getExtra(), applied.getOnFlavor()))
+                    .collect(Collectors.toList());
+        }
+
+        return new ResponseDtos.OrderItemDto(
+                line.getId(),
+                line.getItemType(),
+                line.getPizzaType(),
+                line.getFlavors(),
+                appliedExtrasDto,
+                line.getCrust(),
+                line.getBeverage(),
+                line.getObservations(),
+                line.getQuantity(),
+                line.getTotalPrice()
+        );
+    }
 }
@@ -0,0 +1,284 @@
+package com.pizzadelivery.backend.metrics;
+
+import com.pizzadelivery.backend.dto.MenuAnalyticsDtos;
+import com.pizzadelivery.backend.entity.Order;
+import com.pizzadelivery.backend.entity.OrderLineSnapshot;
+import com.pizzadelivery.backend.enums.OrderItemType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Indicadores do cardápio calculados em memória, fora do banco transacional.
+ *
+ * Os itens dos pedidos da janela configurada (padrão: 90 dias, sem cancelados) são carregados em
+ * {@link OrderLineColumns}. A cada poucos segundos só os pedidos novos são acrescentados; uma vez por dia
+ * as colunas são reconstruídas do zero, o que descarta dias fora da janela e pedidos cancelados depois de
+ * carregados. As consultas percorrem os blocos em paralelo, cada um com seu acumulador, e somam no final.
+ */
+@Slf4j
+@Component
+public class MenuAnalyticsEngine {
+
+    // Pedidos podem ser gravados com createdAt um pouco anterior ao de pedidos já lidos
+    private static final long OVERLAP_MINUTES = 5;
+    private static final List<String> WEEKDAYS = List.of("Segunda", "Terça", "Quarta", "Quinta", "Sexta", "Sábado", "Domingo");
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int windowDays;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile OrderLineColumns columns = new OrderLineColumns();
+
+    // Estado da carga incremental, protegido pelo monitor desta instância
+    private LocalDateTime watermark;
+    private final Map<String, LocalDateTime> recentOrderIds = new HashMap<>();
+
+    public MenuAnalyticsEngine(OrderRepository orderRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${analytics.menu.window-days:90}") int windowDays) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.windowDays = Math.max(1, windowDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${analytics.menu.rebuild-cron:0 30 4 * * *}")
+    public synchronized void rebuild() {
+        OrderLineColumns fresh = new OrderLineColumns();
+        recentOrderIds.clear();
+        watermark = LocalDate.now().minusDays(windowDays - 1).atStartOfDay();
+        long start = System.currentTimeMillis();
+        int orders = load(fresh, watermark);
+        columns = fresh;
+        log.info("Análise do cardápio reconstruída: {} pedidos, {} itens em {} ms",
+                orders, fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.menu.refresh-ms:30000}", initialDelayString = "${analytics.menu.refresh-ms:30000}")
+    public synchronized void refresh() {
+        if (watermark != null) {
+            load(columns, watermark.minusMinutes(OVERLAP_MINUTES));
+        }
+    }
+
+    private int load(OrderLineColumns target, LocalDateTime since) {
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            int count = 0;
+            try (Stream<Order> orders = orderRepository.streamCreatedSince(since, OrderStatus.CANCELLED)) {
+                for (Order order : (Iterable<Order>) orders::iterator) {
+                    if (recentOrderIds.putIfAbsent(order.getId(), order.getCreatedAt()) == null) {
+                        append(target, order);
+                        count++;
+                    }
+                    if (order.getCreatedAt().isAfter(watermark)) {
+                        watermark = order.getCreatedAt();
+                    }
+                    entityManager.detach(order);
+                }
+            }
+            return count;
+        });
+        LocalDateTime forgetBefore = watermark.minusMinutes(OVERLAP_MINUTES);
+        recentOrderIds.values().removeIf(createdAt -> createdAt.isBefore(forgetBefore));
+        return loaded == null ? 0 : loaded;
+    }
+
+    private static void append(OrderLineColumns target, Order order) {
+        List<OrderLineSnapshot> lines = order.getLineSnapshots() != null ? order.getLineSnapshots()
+                : order.getItems() == null ? List.of()
+                : order.getItems().stream().map(OrderLineSnapshot::of).collect(Collectors.toList());
+        int epochDay = (int) order.getCreatedAt().toLocalDate().toEpochDay();
+        int hour = order.getCreatedAt().getHour();
+
+        boolean first = true;
+        for (OrderLineSnapshot line : lines) {
+            if (line.getItemType() != OrderItemType.PIZZA) {
+                target.append(epochDay, hour, first, OrderLineColumns.NONE, OrderLineColumns.NONE, line.getQuantity(), 0, new int[0]);
+            } else {
+                int pizzaType = line.getPizzaType() == null ? OrderLineColumns.NONE
+                        : target.pizzaTypes.ordinalOf(line.getPizzaType().getId(), line.getPizzaType().getName());
+                int crust = line.getCrust() == null ? OrderLineColumns.NONE
+                        : target.crusts.ordinalOf(line.getCrust().getId(), line.getCrust().getName());
+                int[] flavors = line.getFlavors() == null ? new int[0]
+                        : line.getFlavors().stream()
+                                .mapToInt(flavor -> target.flavors.ordinalOf(flavor.getId(), flavor.getName()))
+                                .filter(ordinal -> ordinal != OrderLineColumns.NONE)
+                                .toArray();
+                int extras = line.getAppliedExtras() == null ? 0 : line.getAppliedExtras().size();
+                target.append(epochDay, hour, first, pizzaType, crust, line.getQuantity(), extras, flavors);
+            }
+            first = false;
+        }
+    }
+
+    // ---------------- Consultas ----------------
+
+    public List<MenuAnalyticsDtos.FlavorPopularity> flavorPopularity(int days) {
+        OrderLineColumns current = columns;
+        OrderLineColumns.View view = current.view();
+        int flavorCount = view.flavorCount();
+        // [0, n): pizzas com o sabor; [n, 2n): pizzas ponderadas pela fração do sabor
+        double[] totals = scan(view, days, () -> new double[2 * flavorCount], (acc, chunk, i) -> {
+            if (chunk.pizzaType[i] == OrderLineColumns.NONE) {
+                return;
+            }
+            int start = chunk.flavorStart(i);
+            int end = chunk.flavorEnd[i];
+            int[] values = chunk.flavorValues;
+            double share = (double) chunk.quantity[i] / Math.max(1, end - start);
+            for (int k = start; k < end; k++) {
+                acc[values[k]] += chunk.quantity[i];
+                acc[flavorCount + values[k]] += share;
+            }
+        }, MenuAnalyticsEngine::sum);
+
+        List<MenuAnalyticsDtos.FlavorPopularity> result = new ArrayList<>();
+        for (int flavor = 0; flavor < flavorCount; flavor++) {
+            if (totals[flavor] > 0) {
+                result.add(new MenuAnalyticsDtos.FlavorPopularity(current.flavors.nameOf(flavor),
+                        (long) totals[flavor], totals[flavorCount + flavor]));
+            }
+        }
+        result.sort(Comparator.comparingDouble(MenuAnalyticsDtos.FlavorPopularity::weightedPizzas).reversed());
+        return result;
+    }
+
+    public List<MenuAnalyticsDtos.ExtrasAttachRate> extrasAttachRate(int days) {
+        OrderLineColumns current = columns;
+        OrderLineColumns.View view = current.view();
+        int typeCount = view.pizzaTypeCount();
+        // [0, n): pizzas do tipo; [n, 2n): pizzas do tipo com adicional
+        double[] totals = scan(view, days, () -> new double[2 * typeCount], (acc, chunk, i) -> {
+            int type = chunk.pizzaType[i];
+            if (type == OrderLineColumns.NONE) {
+                return;
+            }
+            acc[type] += chunk.quantity[i];
+            if (chunk.extraCount[i] > 0) {
+                acc[typeCount + type] += chunk.quantity[i];
+            }
+        }, MenuAnalyticsEngine::sum);
+
+        List<MenuAnalyticsDtos.ExtrasAttachRate> result = new ArrayList<>();
+        for (int type = 0; type < typeCount; type++) {
+            long pizzas = (long) totals[type];
+            if (pizzas > 0) {
+                long withExtras = (long) totals[typeCount + type];
+                result.add(new MenuAnalyticsDtos.ExtrasAttachRate(current.pizzaTypes.nameOf(type), pizzas, withExtras,
+                        (double) withExtras / pizzas));
+            }
+        }
+        result.sort(Comparator.comparingDouble(MenuAnalyticsDtos.ExtrasAttachRate::attachRate).reversed());
+        return result;
+    }
+
+    public List<MenuAnalyticsDtos.CrustTakeRate> crustTakeRate(int days) {
+        OrderLineColumns current = columns;
+        OrderLineColumns.View view = current.view();
+        int typeCount = view.pizzaTypeCount();
+        // Matriz tipo × (bordas + "sem borda" na última coluna)
+        int width = view.crustCount() + 1;
+        double[] totals = scan(view, days, () -> new double[typeCount * width], (acc, chunk, i) -> {
+            int type = chunk.pizzaType[i];
+            if (type == OrderLineColumns.NONE) {
+                return;
+            }
+            int crust = chunk.crust[i] == OrderLineColumns.NONE ? width - 1 : chunk.crust[i];
+            acc[type * width + crust] += chunk.quantity[i];
+        }, MenuAnalyticsEngine::sum);
+
+        List<MenuAnalyticsDtos.CrustTakeRate> result = new ArrayList<>();
+        for (int type = 0; type < typeCount; type++) {
+            double pizzas = 0;
+            for (int crust = 0; crust < width; crust++) {
+                pizzas += totals[type * width + crust];
+            }
+            for (int crust = 0; crust < width && pizzas > 0; crust++) {
+                long count = (long) totals[type * width + crust];
+                if (count > 0) {
+                    String crustName = crust == width - 1 ? "Sem borda" : current.crusts.nameOf(crust);
+                    result.add(new MenuAnalyticsDtos.CrustTakeRate(current.pizzaTypes.nameOf(type), crustName, count, count / pizzas));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(MenuAnalyticsDtos.CrustTakeRate::pizzaType, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Comparator.comparingDouble(MenuAnalyticsDtos.CrustTakeRate::takeRate).reversed()));
+        return result;
+    }
+
+    public MenuAnalyticsDtos.OrderHeatmap orderHeatmap(int days) {
+        double[] totals = scan(columns.view(), days, () -> new double[7 * 24], (acc, chunk, i) -> {
+            if (chunk.orderStart[i]) {
+                // 1970-01-01 foi uma quinta-feira; +3 faz a segunda-feira cair em 0
+                int weekday = Math.floorMod(chunk.epochDay[i] + 3, 7);
+                acc[weekday * 24 + chunk.hour[i]]++;
+            }
+        }, MenuAnalyticsEngine::sum);
+
+        long[][] orders = new long[7][24];
+        for (int weekday = 0; weekday < 7; weekday++) {
+            for (int hour = 0; hour < 24; hour++) {
+                orders[weekday][hour] = (long) totals[weekday * 24 + hour];
+            }
+        }
+        return new MenuAnalyticsDtos.OrderHeatmap(WEEKDAYS, orders);
+    }
+
+    @FunctionalInterface
+    private interface LineVisitor<A> {
+        void visit(A accumulator, OrderLineColumns.Chunk chunk, int offset);
+    }
+
+    /** Percorre em paralelo os itens dos últimos {@code days} dias (todos, se {@code days <= 0}). */
+    private static <A> A scan(OrderLineColumns.View view, int days, Supplier<A> init, LineVisitor<A> visitor, BinaryOperator<A> merge) {
+        int minDay = days > 0 ? (int) LocalDate.now().minusDays(days - 1).toEpochDay() : Integer.MIN_VALUE;
+        return IntStream.range(0, view.chunkCount()).parallel()
+                .mapToObj(c -> {
+                    A accumulator = init.get();
+                    OrderLineColumns.Chunk chunk = view.chunks()[c];
+                    int lines = view.linesIn(c);
+                    for (int i = 0; i < lines; i++) {
+                        if (chunk.epochDay[i] >= minDay) {
+                            visitor.visit(accumulator, chunk, i);
+                        }
+                    }
+                    return accumulator;
+                })
+                .reduce(merge)
+                .orElseGet(init);
+    }
+
+    private static double[] sum(double[] left, double[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+}
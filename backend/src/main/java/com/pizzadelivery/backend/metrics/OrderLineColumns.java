@@ -0,0 +1,143 @@
+package com.pizzadelivery.backend.metrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Itens de pedido em colunas de tipos primitivos, particionadas em blocos de tamanho fixo.
+ *
+ * Cada item é uma posição nas colunas; itens do catálogo (tipo de pizza, sabor, borda, adicional) viram
+ * ordinais densos, atribuídos na ordem em que aparecem. Os sabores, que são vários por item, ficam numa
+ * coluna à parte em formato CSR (fim do intervalo de cada item + valores).
+ *
+ * Há um único escritor (as chamadas de {@link #append} devem ser serializadas) e qualquer número de
+ * leitores. O escritor preenche as colunas e só então publica o novo tamanho num campo volátil; um leitor
+ * que lê o tamanho primeiro enxerga tudo o que foi escrito até ele, sem travas.
+ */
+public class OrderLineColumns {
+
+    static final int CHUNK_BITS = 14;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    public static final int NONE = -1;
+
+    final Dictionary pizzaTypes = new Dictionary();
+    final Dictionary flavors = new Dictionary();
+    final Dictionary crusts = new Dictionary();
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+
+    /**
+     * Acrescenta um item.
+     * @param orderStart Se é o primeiro item do pedido (usado para contar pedidos).
+     * @param pizzaType Ordinal do tipo de pizza, ou {@link #NONE} para bebidas.
+     */
+    public void append(int epochDay, int hour, boolean orderStart, int pizzaType, int crust, int quantity,
+                       int extraCount, int[] flavorOrdinals) {
+        int index = size;
+        int offset = index & (CHUNK_SIZE - 1);
+        if (offset == 0) {
+            Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = new Chunk();
+            chunks = grown;
+        }
+        Chunk chunk = chunks[index >>> CHUNK_BITS];
+        chunk.epochDay[offset] = epochDay;
+        chunk.hour[offset] = (byte) hour;
+        chunk.orderStart[offset] = orderStart;
+        chunk.pizzaType[offset] = pizzaType;
+        chunk.crust[offset] = crust;
+        chunk.quantity[offset] = quantity;
+        chunk.extraCount[offset] = (short) Math.min(extraCount, Short.MAX_VALUE);
+        chunk.appendFlavors(offset, flavorOrdinals);
+        size = index + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Visão consistente para leitura: tamanho publicado e os blocos que o contêm. */
+    View view() {
+        int n = size;
+        return new View(n, chunks, pizzaTypes.size(), flavors.size(), crusts.size());
+    }
+
+    record View(int size, Chunk[] chunks, int pizzaTypeCount, int flavorCount, int crustCount) {
+
+        int chunkCount() {
+            return (size + CHUNK_SIZE - 1) >>> CHUNK_BITS;
+        }
+
+        int linesIn(int chunk) {
+            return Math.min(CHUNK_SIZE, size - (chunk << CHUNK_BITS));
+        }
+    }
+
+    static final class Chunk {
+        final int[] epochDay = new int[CHUNK_SIZE];
+        final byte[] hour = new byte[CHUNK_SIZE];
+        final boolean[] orderStart = new boolean[CHUNK_SIZE];
+        final int[] pizzaType = new int[CHUNK_SIZE];
+        final int[] crust = new int[CHUNK_SIZE];
+        final int[] quantity = new int[CHUNK_SIZE];
+        final short[] extraCount = new short[CHUNK_SIZE];
+
+        // Sabores do item i: flavorValues[flavorStart(i) .. flavorEnd[i])
+        final int[] flavorEnd = new int[CHUNK_SIZE];
+        volatile int[] flavorValues = new int[CHUNK_SIZE];
+
+        int flavorStart(int offset) {
+            return offset == 0 ? 0 : flavorEnd[offset - 1];
+        }
+
+        private void appendFlavors(int offset, int[] ordinals) {
+            int start = flavorStart(offset);
+            int end = start + ordinals.length;
+            int[] values = flavorValues;
+            if (end > values.length) {
+                values = Arrays.copyOf(values, Math.max(end, values.length * 2));
+            }
+            System.arraycopy(ordinals, 0, values, start, ordinals.length);
+            flavorValues = values;
+            flavorEnd[offset] = end;
+        }
+    }
+
+    /** Identificador do catálogo → ordinal denso, com o nome mais recente de cada ordinal para exibição. */
+    static final class Dictionary {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private volatile String[] names = new String[0];
+
+        int ordinalOf(String id, String name) {
+            String key = id != null ? id : name;
+            if (key == null) {
+                return NONE;
+            }
+            Integer ordinal = ordinals.get(key);
+            if (ordinal == null) {
+                ordinal = ordinals.size();
+                ordinals.put(key, ordinal);
+                String[] grown = Arrays.copyOf(names, ordinal + 1);
+                grown[ordinal] = name;
+                names = grown;
+            } else if (name != null && !name.equals(names[ordinal])) {
+                String[] renamed = names.clone();
+                renamed[ordinal] = name;
+                names = renamed;
+            }
+            return ordinal;
+        }
+
+        String nameOf(int ordinal) {
+            String[] current = names;
+            return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+        }
+
+        int size() {
+            return names.length;
+        }
+    }
+}
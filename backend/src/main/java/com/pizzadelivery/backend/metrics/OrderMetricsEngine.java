@@ -0,0 +1,166 @@
+package com.pizzadelivery.backend.metrics;
+
+import com.pizzadelivery.backend.dto.DashboardDtos;
+import com.pizzadelivery.backend.dto.OrderDtos;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderHourlyRollupRepository;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de pedidos em memória para o dashboard ao vivo.
+ *
+ * Alimentado pelos eventos de pedido após o commit, mantém anéis por minuto (últimas 48h) e por hora
+ * (últimos 40 dias) e o total de pedidos pendentes. Na subida é reconstruído a partir dos totais por hora
+ * (order_hourly_rollups) e de uma soma por minuto das últimas 48h, antes de o servidor aceitar requisições.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderMetricsEngine {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    private static final int MINUTE_SLOTS = 48 * 60;
+    private static final int HOUR_SLOTS = 40 * 24;
+
+    private final OrderRepository orderRepository;
+    private final OrderHourlyRollupRepository hourlyRollupRepository;
+
+    private final TimeBucketRing minutes = new TimeBucketRing(MINUTE_MILLIS, MINUTE_SLOTS);
+    private final TimeBucketRing hours = new TimeBucketRing(HOUR_MILLIS, HOUR_SLOTS);
+    private final LongAdder pendingOrders = new LongAdder();
+
+    @PostConstruct
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDateTime hoursSince = now.truncatedTo(ChronoUnit.HOURS).minusHours(HOUR_SLOTS - 1);
+        hourlyRollupRepository.findByHourStartGreaterThanEqualOrderByHourStartAsc(hoursSince)
+                .forEach(rollup -> hours.add(toMillis(rollup.getHourStart()), rollup.getOrderCount(), toCents(rollup.getRevenue())));
+
+        LocalDateTime minutesSince = now.truncatedTo(ChronoUnit.MINUTES).minusMinutes(MINUTE_SLOTS - 1);
+        for (Object[] row : orderRepository.sumPerMinuteSince(minutesSince)) {
+            minutes.add(toMillis(toLocalDateTime(row[0])), ((Number) row[1]).longValue(), toCents(((Number) row[2]).doubleValue()));
+        }
+
+        long pending = orderRepository.countByStatusIn(List.of(OrderStatus.RECEIVED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY))
+                .stream().mapToLong(OrderDtos.StatusCount::count).sum();
+        pendingOrders.add(pending);
+        log.info("Métricas de pedidos reconstruídas ({} pendentes)", pending);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderEvents.OrderCreated event) {
+        long time = toMillis(event.createdAt());
+        long cents = toCents(event.totalAmount());
+        minutes.add(time, 1, cents);
+        hours.add(time, 1, cents);
+        pendingOrders.increment();
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        boolean wasPending = isPending(event.previousStatus());
+        boolean isPending = isPending(event.newStatus());
+        if (wasPending && !isPending) {
+            pendingOrders.decrement();
+        } else if (!wasPending && isPending) {
+            pendingOrders.increment();
+        }
+    }
+
+    public DashboardDtos.DashboardStats stats(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        long todayStart = hours.bucketOf(toMillis(today.atStartOfDay()));
+        long weekStart = hours.bucketOf(toMillis(today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay()));
+        long monthStart = hours.bucketOf(toMillis(today.with(TemporalAdjusters.firstDayOfMonth()).atStartOfDay()));
+        long current = hours.bucketOf(toMillis(now));
+
+        long todayOrders = 0, weeklyOrders = 0, monthlyOrders = 0;
+        long todayCents = 0, weeklyCents = 0, monthlyCents = 0;
+        for (long bucket = Math.min(weekStart, monthStart); bucket <= current; bucket++) {
+            long count = hours.count(bucket);
+            long cents = hours.amount(bucket);
+            if (bucket >= todayStart) {
+                todayOrders += count;
+                todayCents += cents;
+            }
+            if (bucket >= weekStart) {
+                weeklyOrders += count;
+                weeklyCents += cents;
+            }
+            if (bucket >= monthStart) {
+                monthlyOrders += count;
+                monthlyCents += cents;
+            }
+        }
+
+        DashboardDtos.Revenue revenue = new DashboardDtos.Revenue(todayCents / 100.0, weeklyCents / 100.0, monthlyCents / 100.0);
+        return new DashboardDtos.DashboardStats(todayOrders, weeklyOrders, monthlyOrders, Math.max(0, pendingOrders.sum()), revenue);
+    }
+
+    public List<DashboardDtos.DailySale> dailyRevenue(LocalDate from, LocalDate to) {
+        List<DashboardDtos.DailySale> sales = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long first = hours.bucketOf(toMillis(day.atStartOfDay()));
+            long cents = 0;
+            for (long bucket = first; bucket < first + 24; bucket++) {
+                cents += hours.amount(bucket);
+            }
+            sales.add(new DashboardDtos.DailySale(day, cents / 100.0));
+        }
+        return sales;
+    }
+
+    public List<DashboardDtos.MinuteActivity> recentMinutes(LocalDateTime now, int count) {
+        long current = minutes.bucketOf(toMillis(now));
+        int window = clampMinutes(count);
+        List<DashboardDtos.MinuteActivity> activity = new ArrayList<>(window);
+        for (long bucket = current - window + 1; bucket <= current; bucket++) {
+            LocalDateTime minuteStart = LocalDateTime.ofEpochSecond(minutes.bucketStartMillis(bucket) / 1000, 0, ZoneOffset.UTC);
+            activity.add(new DashboardDtos.MinuteActivity(minuteStart, minutes.count(bucket), minutes.amount(bucket) / 100.0));
+        }
+        return activity;
+    }
+
+    /** Quantidade de minutos efetivamente servida por {@link #recentMinutes}: entre 1 e a janela do anel. */
+    public int clampMinutes(int count) {
+        return Math.max(1, Math.min(count, minutes.size()));
+    }
+
+    private static boolean isPending(OrderStatus status) {
+        return status == OrderStatus.RECEIVED || status == OrderStatus.PREPARING || status == OrderStatus.OUT_FOR_DELIVERY;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,82 @@
+package com.pizzadelivery.backend.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anel de tamanho fixo com um contador e um valor acumulado por intervalo de tempo.
+ *
+ * Cada posição guarda o número do intervalo a que pertence; ao receber um evento de um intervalo mais
+ * novo, a posição é reciclada. As somas são lock-free (AtomicLongArray); só a reciclagem de uma posição,
+ * que acontece uma vez por intervalo, passa por um monitor. Eventos mais antigos que a janela do anel
+ * são descartados.
+ *
+ * Os instantes são milissegundos "locais" (LocalDateTime tratado como UTC), de modo que intervalos de
+ * hora e de dia coincidem com o relógio da loja.
+ */
+public class TimeBucketRing {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int size;
+    private final AtomicLongArray bucketIds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray amounts;
+
+    public TimeBucketRing(long bucketMillis, int size) {
+        this.bucketMillis = bucketMillis;
+        this.size = size;
+        this.bucketIds = new AtomicLongArray(size);
+        this.counts = new AtomicLongArray(size);
+        this.amounts = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            bucketIds.set(i, EMPTY);
+        }
+    }
+
+    public long bucketOf(long timeMillis) {
+        return Math.floorDiv(timeMillis, bucketMillis);
+    }
+
+    public long bucketStartMillis(long bucket) {
+        return bucket * bucketMillis;
+    }
+
+    public void add(long timeMillis, long count, long amount) {
+        long bucket = bucketOf(timeMillis);
+        int slot = (int) Math.floorMod(bucket, (long) size);
+        if (bucketIds.get(slot) != bucket && !recycle(slot, bucket)) {
+            return;
+        }
+        counts.addAndGet(slot, count);
+        amounts.addAndGet(slot, amount);
+    }
+
+    private synchronized boolean recycle(int slot, long bucket) {
+        long current = bucketIds.get(slot);
+        if (current == bucket) {
+            return true;
+        }
+        if (current != EMPTY && current > bucket) {
+            return false;
+        }
+        counts.set(slot, 0);
+        amounts.set(slot, 0);
+        bucketIds.set(slot, bucket);
+        return true;
+    }
+
+    public long count(long bucket) {
+        int slot = (int) Math.floorMod(bucket, (long) size);
+        return bucketIds.get(slot) == bucket ? counts.get(slot) : 0;
+    }
+
+    public long amount(long bucket) {
+        int slot = (int) Math.floorMod(bucket, (long) size);
+        return bucketIds.get(slot) == bucket ? amounts.get(slot) : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.entity.CustomerUser;
+import com.pizzadelivery.backend.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/** Avisos por e-mail: o lote entra na fila de saída numa única transação e o EmailOutboxDispatcher envia. */
+@Component
+@RequiredArgsConstructor
+public class EmailNotificationChannel implements NotificationChannel {
+
+    private static final String SUBJECT = "Atualização do seu pedido - PizzaExpress";
+
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public String addressOf(CustomerUser customer) {
+        String email = customer.getEmail();
+        return email == null || email.isBlank() ? null : email;
+    }
+
+    @Override
+    public void deliver(List<Notification> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                batch.forEach(n -> emailService.enqueue(n.recipient(), SUBJECT, n.message())));
+    }
+}
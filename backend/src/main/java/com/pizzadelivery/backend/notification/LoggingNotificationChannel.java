@@ -0,0 +1,34 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.entity.CustomerUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * WhatsApp sem provedor: só registra no log o que seria enviado. É o padrão enquanto nenhum provedor
+ * real estiver configurado e serve para testar o fluxo de avisos localmente.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.whatsapp.provider", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationChannel implements NotificationChannel {
+
+    @Override
+    public String name() {
+        return "whatsapp";
+    }
+
+    @Override
+    public String addressOf(CustomerUser customer) {
+        String whatsapp = customer.getWhatsapp();
+        return whatsapp == null || whatsapp.isBlank() ? null : whatsapp;
+    }
+
+    @Override
+    public void deliver(List<Notification> batch) {
+        batch.forEach(n -> log.info("[whatsapp] {} -> {}", n.recipient(), n.message()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/** Aviso a um cliente por um canal. Só valores: atravessa threads e pode ir para a fila de falhas. */
+public record Notification(
+        String channel,
+        String orderId,
+        String customerId,
+        String recipient,
+        OrderStatus status,
+        String message,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,23 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.entity.CustomerUser;
+
+import java.util.List;
+
+/**
+ * Canal de aviso ao cliente (e-mail, WhatsApp…). Cada bean registrado ganha sua própria fila, lote e limite
+ * de envio no NotificationDispatcher, configurados em {@code notification.channels.<name>.*}.
+ */
+public interface NotificationChannel {
+
+    String name();
+
+    /** Endereço do cliente neste canal, ou null se ele não pode ser avisado por aqui. */
+    String addressOf(CustomerUser customer);
+
+    /**
+     * Entrega um lote inteiro. Uma exceção significa que o lote falhou e será tentado de novo; o canal
+     * deve ser idempotente o bastante para isso.
+     */
+    void deliver(List<Notification> batch) throws Exception;
+}
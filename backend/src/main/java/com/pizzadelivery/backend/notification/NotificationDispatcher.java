@@ -0,0 +1,234 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.entity.CustomerUser;
+import com.pizzadelivery.backend.entity.NotificationDeadLetter;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.CustomerUserRepository;
+import com.pizzadelivery.backend.repository.NotificationDeadLetterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Avisa o cliente das mudanças de status do pedido por todos os canais registrados.
+ *
+ * O ouvinte roda depois do commit, na thread de quem mudou o status, e só monta os avisos e os coloca nas
+ * filas; nada ali espera por provedor. Cada canal tem a própria fila limitada e uma thread que a consome em
+ * lotes, respeitando o limite de envio do canal e tentando de novo com espera crescente. O que não cabe na
+ * fila ou esgota as tentativas vai para notification_dead_letters. Um canal lento só atrasa os próprios avisos.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CustomerUserRepository customerUserRepository;
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final TransactionTemplate deadLetterTransaction;
+    private final boolean enabled;
+    private final List<ChannelWorker> workers = new ArrayList<>();
+
+    public NotificationDispatcher(List<NotificationChannel> channels,
+                                  CustomerUserRepository customerUserRepository,
+                                  NotificationDeadLetterRepository deadLetterRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  Environment environment,
+                                  @Value("${notification.enabled:true}") boolean enabled) {
+        this.customerUserRepository = customerUserRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.enabled = enabled;
+
+        // O ouvinte roda após o commit: a gravação precisa de uma transação própria para valer
+        this.deadLetterTransaction = new TransactionTemplate(transactionManager);
+        this.deadLetterTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (enabled) {
+            for (NotificationChannel channel : channels) {
+                ChannelWorker worker = new ChannelWorker(channel, ChannelSettings.of(environment, channel.name()));
+                workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        if (!enabled || workers.isEmpty() || event.customerId() == null) {
+            return;
+        }
+        String message = messageFor(event);
+        if (message == null) {
+            return;
+        }
+        CustomerUser customer = customerUserRepository.findById(event.customerId()).orElse(null);
+        if (customer == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (ChannelWorker worker : workers) {
+            String recipient = worker.channel.addressOf(customer);
+            if (recipient == null) {
+                continue;
+            }
+            Notification notification = new Notification(worker.channel.name(), event.orderId(), event.customerId(),
+                    recipient, event.newStatus(), message, now);
+            if (!worker.queue.offer(notification)) {
+                deadLetter(List.of(notification), 0, "Fila do canal cheia");
+            }
+        }
+    }
+
+    public List<NotificationDeadLetter> getDeadLetters(int limit) {
+        int size = Math.min(Math.max(limit, 1), 500);
+        return deadLetterRepository.findAllByOrderByFailedAtDesc(PageRequest.of(0, size));
+    }
+
+    static String messageFor(OrderEvents.OrderStatusChanged event) {
+        String code = "#" + event.orderId().substring(0, Math.min(8, event.orderId().length())).toUpperCase();
+        return switch (event.newStatus()) {
+            case PREPARING -> "Seu pedido " + code + " está sendo preparado.";
+            case OUT_FOR_DELIVERY -> "Seu pedido " + code + " saiu para entrega.";
+            case COMPLETED -> event.deliveryType() == DeliveryType.PICKUP
+                    ? "Seu pedido " + code + " foi retirado. Bom apetite!"
+                    : "Seu pedido " + code + " foi entregue. Bom apetite!";
+            case CANCELLED -> "Seu pedido " + code + " foi cancelado.";
+            // A criação do pedido já é confirmada na própria tela de checkout
+            case RECEIVED -> null;
+        };
+    }
+
+    private void deadLetter(List<Notification> notifications, int attempts, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            deadLetterTransaction.executeWithoutResult(status -> deadLetterRepository.saveAll(notifications.stream()
+                    .map(n -> NotificationDeadLetter.builder()
+                            .channel(n.channel())
+                            .orderId(n.orderId())
+                            .customerId(n.customerId())
+                            .recipient(n.recipient())
+                            .status(n.status())
+                            .message(n.message())
+                            .attempts(attempts)
+                            .lastError(lastError)
+                            .createdAt(n.createdAt())
+                            .failedAt(now)
+                            .build())
+                    .toList()));
+        } catch (RuntimeException e) {
+            log.error("Não foi possível registrar {} avisos não entregues: {}", notifications.size(), lastError, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        workers.forEach(worker -> worker.thread.interrupt());
+        // Espera os avisos pendentes irem para a fila de falhas enquanto o banco ainda está disponível
+        for (ChannelWorker worker : workers) {
+            worker.thread.join(5000);
+        }
+    }
+
+    record ChannelSettings(int queueCapacity, int batchSize, double ratePerSecond, int burst,
+                           int maxAttempts, Duration retryBackoff) {
+
+        // notification.channels.<canal>.<chave>, com notification.defaults.<chave> como padrão
+        static ChannelSettings of(Environment environment, String channel) {
+            return new ChannelSettings(
+                    Math.max(1, setting(environment, channel, "queue-capacity", Integer::valueOf, 1000)),
+                    Math.max(1, setting(environment, channel, "batch-size", Integer::valueOf, 20)),
+                    Math.max(0.001, setting(environment, channel, "rate-per-second", Double::valueOf, 10d)),
+                    Math.max(1, setting(environment, channel, "burst", Integer::valueOf, 20)),
+                    Math.max(1, setting(environment, channel, "max-attempts", Integer::valueOf, 3)),
+                    setting(environment, channel, "retry-backoff", DurationStyle::detectAndParse, Duration.ofSeconds(2)));
+        }
+
+        private static <T> T setting(Environment environment, String channel, String key,
+                                     Function<String, T> parser, T fallback) {
+            String value = environment.getProperty("notification.channels." + channel + "." + key);
+            if (value == null) {
+                value = environment.getProperty("notification.defaults." + key);
+            }
+            return value == null || value.isBlank() ? fallback : parser.apply(value.trim());
+        }
+    }
+
+    private final class ChannelWorker implements Runnable {
+        private final NotificationChannel channel;
+        private final ChannelSettings settings;
+        private final BlockingQueue<Notification> queue;
+        private final TokenBucket rateLimit;
+        private final Thread thread;
+
+        private ChannelWorker(NotificationChannel channel, ChannelSettings settings) {
+            this.channel = channel;
+            this.settings = settings;
+            this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+            this.rateLimit = new TokenBucket(settings.ratePerSecond(), settings.burst(), System.nanoTime());
+            this.thread = new Thread(this, "notification-" + channel.name());
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            List<Notification> batch = List.of();
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    batch = new ArrayList<>(settings.batchSize());
+                    batch.add(queue.take());
+                    queue.drainTo(batch, settings.batchSize() - 1);
+                    rateLimit.acquire(batch.size());
+                    deliver(batch);
+                    batch = List.of();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Notification> pending = new ArrayList<>(batch);
+            queue.drainTo(pending);
+            if (!pending.isEmpty()) {
+                deadLetter(pending, 0, "Aplicação encerrada antes do envio");
+            }
+        }
+
+        private void deliver(List<Notification> batch) throws InterruptedException {
+            Exception lastError = null;
+            for (int attempt = 1; attempt <= settings.maxAttempts(); attempt++) {
+                try {
+                    channel.deliver(batch);
+                    return;
+                } catch (Exception e) {
+                    lastError = e;
+                    log.warn("Canal {}: falha ao entregar {} avisos (tentativa {}/{}): {}",
+                            channel.name(), batch.size(), attempt, settings.maxAttempts(), e.getMessage());
+                    if (attempt < settings.maxAttempts()) {
+                        Thread.sleep(settings.retryBackoff().multipliedBy(1L << Math.min(attempt - 1, 20)).toMillis());
+                    }
+                }
+            }
+            deadLetter(batch, settings.maxAttempts(), String.valueOf(lastError.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.pizzadelivery.backend.notification;
+
+/**
+ * Balde de fichas para limitar a vazão de um canal. Um pedido maior que o saldo é aceito e deixa o saldo
+ * negativo; quem pediu espera o tempo de reposição devolvido por {@link #reserve}. Assim lotes maiores que
+ * a rajada não travam, mas a vazão média continua limitada a {@code permitsPerSecond}.
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /** Reserva as fichas e devolve quantos nanossegundos esperar antes de usá-las. */
+    synchronized long reserve(int permits, long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * permitsPerNano);
+        lastRefill = nowNanos;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits, System.nanoTime());
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+}
@@ -2,6 +2,33 @@ package com.pizzadelivery.backend.repository;
 
 import com.pizzadelivery.backend.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address, String> {
-}
\ No newline at end of file
+
+    // Carrega de uma vez os endereços de uma página de clientes
+    List<Address> findByCustomer_IdIn(Collection<String> customerIds);
+
+    boolean existsByCustomer_IdAndFingerprintAndIdNot(String customerId, String fingerprint, String id);
+
+    // Grava o endereço se o cliente ainda não tiver um com a mesma impressão digital; devolve 0 se já existia
+    @Modifying
+    @Query(value = "INSERT INTO addresses (id, street, number, complement, neighborhood, city, zip_code, customer_user_id, fingerprint) " +
+            "VALUES (:id, :street, :number, :complement, :neighborhood, :city, :zipCode, :customerId, :fingerprint) " +
+            "ON CONFLICT (customer_user_id, fingerprint) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("street") String street,
+                       @Param("number") String number,
+                       @Param("complement") String complement,
+                       @Param("neighborhood") String neighborhood,
+                       @Param("city") String city,
+                       @Param("zipCode") String zipCode,
+                       @Param("customerId") String customerId,
+                       @Param("fingerprint") String fingerprint);
+}
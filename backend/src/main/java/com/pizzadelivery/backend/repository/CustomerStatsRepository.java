@@ -0,0 +1,47 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.entity.CustomerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, String> {
+
+    // Soma os deltas nos totais do cliente, criando a linha se ainda não existir.
+    // LEAST/GREATEST ignoram NULL, então orderAt nulo não altera primeiro/último pedido.
+    @Modifying
+    @Query(value = "INSERT INTO customer_stats (customer_user_id, total_orders, total_spent, first_order_at, last_order_at) " +
+            "VALUES (:customerId, :orders, :spent, :orderAt, :orderAt) " +
+            "ON CONFLICT (customer_user_id) DO UPDATE SET " +
+            "total_orders = customer_stats.total_orders + EXCLUDED.total_orders, " +
+            "total_spent = customer_stats.total_spent + EXCLUDED.total_spent, " +
+            "first_order_at = LEAST(customer_stats.first_order_at, EXCLUDED.first_order_at), " +
+            "last_order_at = GREATEST(customer_stats.last_order_at, EXCLUDED.last_order_at)",
+            nativeQuery = true)
+    void addDeltas(@Param("customerId") String customerId,
+                   @Param("orders") long orders,
+                   @Param("spent") double spent,
+                   @Param("orderAt") LocalDateTime orderAt);
+
+    // Reconstrução completa; a trava impede que pedidos criados durante a carga sejam contados duas vezes
+    @Modifying
+    @Query(value = "LOCK TABLE customer_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM customer_stats", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO customer_stats (customer_user_id, total_orders, total_spent, first_order_at, last_order_at) " +
+            "SELECT customer_user_id, " +
+            "COUNT(*) FILTER (WHERE status IS NULL OR status <> 'CANCELLED'), " +
+            "COALESCE(SUM(total_amount) FILTER (WHERE status IS NULL OR status <> 'CANCELLED'), 0), " +
+            "MIN(created_at), MAX(created_at) " +
+            "FROM orders WHERE customer_user_id IS NOT NULL GROUP BY customer_user_id",
+            nativeQuery = true)
+    int insertFromOrders();
+}
@@ -1,11 +1,22 @@
 package com.pizzadelivery.backend.repository;
 
 import com.pizzadelivery.backend.entity.CustomerUser;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerUserRepository extends JpaRepository<CustomerUser, String> {
     Optional<CustomerUser> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Buscas por prefixo nas colunas normalizadas; o padrão deve terminar em '%' e já vir normalizado
+    @Query("SELECT c FROM CustomerUser c WHERE c.searchName LIKE :pattern OR c.searchEmail LIKE :pattern ORDER BY c.searchName")
+    List<CustomerUser> searchByNameOrEmail(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT c FROM CustomerUser c WHERE c.searchWhatsapp LIKE :pattern OR c.searchCpf LIKE :pattern ORDER BY c.searchName")
+    List<CustomerUser> searchByWhatsappOrCpf(@Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.entity.DailyCloseReport;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyCloseReportRepository extends JpaRepository<DailyCloseReport, LocalDate> {
+
+    List<DailyCloseReport> findByDayBetweenOrderByDayAsc(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,12 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.entity.NotificationDeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, String> {
+
+    List<NotificationDeadLetter> findAllByOrderByFailedAtDesc(Pageable pageable);
+}
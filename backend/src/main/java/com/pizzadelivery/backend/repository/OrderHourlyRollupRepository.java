@@ -0,0 +1,38 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.entity.OrderHourlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderHourlyRollupRepository extends JpaRepository<OrderHourlyRollup, LocalDateTime> {
+
+    List<OrderHourlyRollup> findByHourStartGreaterThanEqualOrderByHourStartAsc(LocalDateTime start);
+
+    // Soma os deltas na linha da hora, criando-a se ainda não existir
+    @Modifying
+    @Query(value = "INSERT INTO order_hourly_rollups (hour_start, order_count, revenue, received_count, preparing_count, " +
+            "out_for_delivery_count, completed_count, cancelled_count) " +
+            "VALUES (:hourStart, :orders, :revenue, :received, :preparing, :outForDelivery, :completed, :cancelled) " +
+            "ON CONFLICT (hour_start) DO UPDATE SET " +
+            "order_count = order_hourly_rollups.order_count + EXCLUDED.order_count, " +
+            "revenue = order_hourly_rollups.revenue + EXCLUDED.revenue, " +
+            "received_count = order_hourly_rollups.received_count + EXCLUDED.received_count, " +
+            "preparing_count = order_hourly_rollups.preparing_count + EXCLUDED.preparing_count, " +
+            "out_for_delivery_count = order_hourly_rollups.out_for_delivery_count + EXCLUDED.out_for_delivery_count, " +
+            "completed_count = order_hourly_rollups.completed_count + EXCLUDED.completed_count, " +
+            "cancelled_count = order_hourly_rollups.cancelled_count + EXCLUDED.cancelled_count",
+            nativeQuery = true)
+    void addDeltas(@Param("hourStart") LocalDateTime hourStart,
+                   @Param("orders") long orders,
+                   @Param("revenue") double revenue,
+                   @Param("received") long received,
+                   @Param("preparing") long preparing,
+                   @Param("outForDelivery") long outForDelivery,
+                   @Param("completed") long completed,
+                   @Param("cancelled") long cancelled);
+}
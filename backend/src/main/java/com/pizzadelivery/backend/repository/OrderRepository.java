@@ -1,32 +1,104 @@
 package com.pizzadelivery.backend.repository;
 
-import com.pizzadelivery.backend.dto.DashboardDtos;
+import com.pizzadelivery.backend.dto.DispatchDtos;
+import com.pizzadelivery.backend.dto.OrderDtos;
+import com.pizzadelivery.backend.dto.ResponseDtos;
 import com.pizzadelivery.backend.entity.Order;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, String> {
 
-    long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-    List<Order> findByCustomerUser_IdOrderByCreatedAtDesc(String customerId);
+    // Trava as linhas para que a atribuição de um lote e mudanças manuais de status não se cruzem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
 
-    // CORREÇÃO: Usando a função CAST para compatibilidade máxima, incluindo H2.
-    @Query("SELECT new com.pizzadelivery.backend.dto.DashboardDtos$DailySale(cast(o.createdAt as java.time.LocalDate), SUM(o.totalAmount)) " +
+    @Query("SELECT new com.pizzadelivery.backend.dto.DispatchDtos$DispatchCandidate(o.id, o.deliveryAddress.zipCode, o.deliveryAddress.neighborhood, o.createdAt) " +
             "FROM Order o " +
-            "WHERE o.createdAt >= :startDate " +
-            "GROUP BY cast(o.createdAt as java.time.LocalDate) " +
-            "ORDER BY cast(o.createdAt as java.time.LocalDate) ASC")
-    List<DashboardDtos.DailySale> findRevenuePerDaySince(LocalDateTime startDate);
-
-
-    // CORREÇÃO: Query corrigida para usar o DTO correto e a sintaxe correta.
-    @Query("SELECT new com.pizzadelivery.backend.dto.DashboardDtos$SalesByPizzaType(item.pizzaType.name, COUNT(item)) " +
-            "FROM Order o JOIN o.items item " +
-            "GROUP BY item.pizzaType.name " +
-            "ORDER BY COUNT(item) DESC")
-    List<DashboardDtos.SalesByPizzaType> countOrdersByPizzaType();
-}
\ No newline at end of file
+            "WHERE o.status = :status AND o.deliveryType = :deliveryType AND o.dispatchBatchId IS NULL")
+    List<DispatchDtos.DispatchCandidate> findDispatchCandidates(@Param("status") OrderStatus status,
+                                                                 @Param("deliveryType") DeliveryType deliveryType);
+
+    @Query("SELECT new com.pizzadelivery.backend.dto.DispatchDtos$DispatchCandidate(o.id, o.deliveryAddress.zipCode, o.deliveryAddress.neighborhood, o.createdAt) " +
+            "FROM Order o " +
+            "WHERE o.id IN :ids AND o.status = :status AND o.deliveryType = :deliveryType AND o.dispatchBatchId IS NULL")
+    List<DispatchDtos.DispatchCandidate> findDispatchCandidatesByIds(@Param("ids") Collection<String> ids,
+                                                                      @Param("status") OrderStatus status,
+                                                                      @Param("deliveryType") DeliveryType deliveryType);
+
+    @Query("SELECT new com.pizzadelivery.backend.dto.DispatchDtos$DispatchCandidate(o.id, o.deliveryAddress.zipCode, o.deliveryAddress.neighborhood, o.createdAt) " +
+            "FROM Order o " +
+            "WHERE o.id = :id AND o.dispatchBatchId IS NULL")
+    Optional<DispatchDtos.DispatchCandidate> findDispatchCandidate(@Param("id") String id);
+
+    // Linhas: [início do minuto, quantidade de pedidos, receita]
+    @Query(value = "SELECT date_trunc('minute', o.created_at), COUNT(*), SUM(o.total_amount) " +
+            "FROM orders o " +
+            "WHERE o.created_at >= :since " +
+            "GROUP BY date_trunc('minute', o.created_at)",
+            nativeQuery = true)
+    List<Object[]> sumPerMinuteSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.pizzadelivery.backend.dto.OrderDtos$StatusCount(o.status, COUNT(o)) " +
+            "FROM Order o " +
+            "WHERE o.status IN :statuses " +
+            "GROUP BY o.status")
+    List<OrderDtos.StatusCount> countByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+    Optional<Order> findByIdAndCustomerUser_Id(String id, String customerId);
+
+    // Histórico paginado por cursor (createdAt, id): usa o índice (customer_user_id, created_at)
+    @Query("SELECT new com.pizzadelivery.backend.dto.ResponseDtos$OrderSummaryDto(o.id, o.createdAt, o.status, o.totalAmount, o.itemCount) " +
+            "FROM Order o " +
+            "WHERE o.customerUser.id = :customerId " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ResponseDtos.OrderSummaryDto> findSummariesByCustomerId(@Param("customerId") String customerId, Pageable pageable);
+
+    @Query("SELECT new com.pizzadelivery.backend.dto.ResponseDtos$OrderSummaryDto(o.id, o.createdAt, o.status, o.totalAmount, o.itemCount) " +
+            "FROM Order o " +
+            "WHERE o.customerUser.id = :customerId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ResponseDtos.OrderSummaryDto> findSummariesByCustomerIdBefore(@Param("customerId") String customerId,
+                                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                                         @Param("id") String id,
+                                                                         Pageable pageable);
+
+    // Exportação: cursor no servidor (fetch size) e projeção em DTO, para memória constante em qualquer período.
+    // Precisa ser consumido dentro de uma transação, e o Stream deve ser fechado.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.pizzadelivery.backend.dto.OrderDtos$ExportRow(o.id, o.createdAt, o.status, o.deliveryType, " +
+            "o.payment.method, o.totalAmount, o.itemCount, c.name, c.email, o.deliveryAddress.neighborhood, " +
+            "o.deliveryAddress.city, o.deliveryAddress.zipCode, o.courierName, o.dispatchedAt) " +
+            "FROM Order o LEFT JOIN o.customerUser c " +
+            "WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "ORDER BY o.createdAt, o.id")
+    Stream<OrderDtos.ExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Carga do motor de análise do cardápio; mesmas regras de consumo do streamForExport
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :since AND (o.status IS NULL OR o.status <> :excluded) " +
+            "ORDER BY o.createdAt, o.id")
+    Stream<Order> streamCreatedSince(@Param("since") LocalDateTime since, @Param("excluded") OrderStatus excluded);
+
+    // Fechamento do dia; mesmas regras de consumo do streamForExport
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.pizzadelivery.backend.dto.OrderDtos$CloseRow(o.status, o.deliveryType, o.payment.method, " +
+            "o.payment.cardBrand, o.totalAmount) " +
+            "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Stream<OrderDtos.CloseRow> streamForClose(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
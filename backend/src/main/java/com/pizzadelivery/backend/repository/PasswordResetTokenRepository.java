@@ -0,0 +1,24 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.entity.PasswordResetToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, String> {
+
+    @Query("SELECT t FROM PasswordResetToken t JOIN FETCH t.customerUser WHERE t.tokenHash = :tokenHash")
+    Optional<PasswordResetToken> findWithCustomerByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.customerUser.id = :customerId")
+    int deleteByCustomerId(@Param("customerId") String customerId);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,37 @@
+package com.pizzadelivery.backend.repository;
+
+import com.pizzadelivery.backend.dto.DashboardDtos;
+import com.pizzadelivery.backend.entity.SalesFact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesFactRepository extends JpaRepository<SalesFact, SalesFact.Key> {
+
+    // Soma os deltas na célula do fato, criando-a se ainda não existir
+    @Modifying
+    @Query(value = "INSERT INTO sales_facts (day, item_type, pizza_type, flavor, channel, payment_method, quantity, revenue) " +
+            "VALUES (:day, :itemType, :pizzaType, :flavor, :channel, :paymentMethod, :quantity, :revenue) " +
+            "ON CONFLICT (day, item_type, pizza_type, flavor, channel, payment_method) DO UPDATE SET " +
+            "quantity = sales_facts.quantity + EXCLUDED.quantity, " +
+            "revenue = sales_facts.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void addDeltas(@Param("day") LocalDate day,
+                   @Param("itemType") String itemType,
+                   @Param("pizzaType") String pizzaType,
+                   @Param("flavor") String flavor,
+                   @Param("channel") String channel,
+                   @Param("paymentMethod") String paymentMethod,
+                   @Param("quantity") double quantity,
+                   @Param("revenue") double revenue);
+
+    @Query("SELECT new com.pizzadelivery.backend.dto.DashboardDtos$SalesByPizzaType(f.key.pizzaType, CAST(ROUND(SUM(f.quantity), 0) AS long)) " +
+            "FROM SalesFact f WHERE f.key.itemType = 'PIZZA' AND f.key.pizzaType <> '' " +
+            "GROUP BY f.key.pizzaType " +
+            "ORDER BY SUM(f.quantity) DESC")
+    List<DashboardDtos.SalesByPizzaType> sumPizzasByType();
+}
@@ -5,12 +5,13 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,17 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = jwtTokenProvider.resolveToken(request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            try {
-                Authentication auth = jwtTokenProvider.getAuthentication(token);
-
-                // LINHA DE DEBUG ADICIONADA
-                System.out.println("### PERMISSÕES LIDAS DO TOKEN JWT: " + auth.getAuthorities());
-
+        if (token != null) {
+            jwtTokenProvider.authenticate(token).ifPresent(auth -> {
+                log.debug("Permissões lidas do token JWT: {}", auth.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(auth);
-            } catch (Exception e) {
-                SecurityContextHolder.clearContext();
-            }
+            });
         }
 
         filterChain.doFilter(request, response);
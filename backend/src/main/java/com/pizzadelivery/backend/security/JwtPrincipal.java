@@ -0,0 +1,30 @@
+package com.pizzadelivery.backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/** Usuário autenticado por JWT. Para clientes carrega o id do claim {@code cid}, dispensando a busca por e-mail. */
+public class JwtPrincipal extends User {
+
+    private final String customerId;
+
+    public JwtPrincipal(String username, String customerId, Collection<? extends GrantedAuthority> authorities) {
+        super(username, "", authorities);
+        this.customerId = customerId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /** Id do cliente presente no token, ou null (admin, ou token emitido antes do claim existir). */
+    public static String customerIdOf(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.getCustomerId();
+        }
+        return null;
+    }
+}
@@ -1,36 +1,58 @@
 package com.pizzadelivery.backend.security;
 
+import com.pizzadelivery.backend.cache.ExpiringCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey key;
     private final long validityInMilliseconds = 3600000; // 1 hora
 
-    public JwtTokenProvider(@Value("${jwt.secret}") String secretKey) {
+    // O parser é imutável e seguro entre threads: montado uma vez só
+    private final JwtParser parser;
+
+    // Token já verificado → autenticação, válida até o vencimento do próprio token
+    private final ExpiringCache<String, Authentication> verified;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String secretKey,
+                            @Value("${jwt.auth-cache.max-size:10000}") int cacheMaxSize) {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = new ExpiringCache<>(cacheMaxSize);
     }
 
     public String createToken(Authentication authentication) {
+        return createToken(authentication, null);
+    }
+
+    /** Com {@code customerId}, o token leva o claim {@code cid} (ver JwtPrincipal). */
+    public String createToken(Authentication authentication, String customerId) {
         Claims claims = Jwts.claims().setSubject(authentication.getName());
+        if (customerId != null) {
+            claims.put("cid", customerId);
+        }
 
         List<String> roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -48,17 +70,42 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    /**
+     * Verifica o token (assinatura e validade) e monta a autenticação, numa única passada. Tokens já vistos
+     * saem do cache até vencerem. Vazio se o token for inválido ou estiver vencido.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        Authentication cached = verified.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token JWT rejeitado: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        Authentication authentication = toAuthentication(claims);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verified.put(token, authentication, expiration.getTime());
+        }
+        return Optional.of(authentication);
+    }
+
+    private Authentication toAuthentication(Claims claims) {
         String username = claims.getSubject();
 
         @SuppressWarnings("unchecked")
         List<String> roles = claims.get("roles", List.class);
-        List<GrantedAuthority> authorities = roles.stream()
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
 
-        UserDetails userDetails = new User(username, "", authorities);
+        UserDetails userDetails = new JwtPrincipal(username, claims.get("cid", String.class), authorities);
 
         return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
     }
@@ -70,13 +117,4 @@ public class JwtTokenProvider {
         }
         return null;
     }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
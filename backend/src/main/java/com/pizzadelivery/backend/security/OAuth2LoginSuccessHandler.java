@@ -26,6 +26,7 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomerUserRepository customerUserRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
@@ -68,7 +69,8 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
         Authentication customAuth = new UsernamePasswordAuthenticationToken(email, null, authorities);
 
         // 4. Gera o token JWT usando a nossa autenticação customizada
-        String token = jwtTokenProvider.createToken(customAuth);
+        principalCache.put(customer);
+        String token = jwtTokenProvider.createToken(customAuth, customer.getId());
 
         // 5. Redireciona para o frontend com o token
         String customerName = URLEncoder.encode(customer.getName(), StandardCharsets.UTF_8);
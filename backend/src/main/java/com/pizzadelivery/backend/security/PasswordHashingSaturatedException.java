@@ -0,0 +1,15 @@
+package com.pizzadelivery.backend.security;
+
+/**
+ * O pool de hash de senha está cheio: o login (ou cadastro) falha na hora em vez de enfileirar threads HTTP.
+ * Vira 503 com {@code Retry-After} no {@link com.pizzadelivery.backend.controller.ApiExceptionHandler}.
+ */
+public class PasswordHashingSaturatedException extends RuntimeException {
+
+    /** Segundos sugeridos ao cliente antes de tentar de novo; um hash leva dezenas de milissegundos. */
+    public static final long RETRY_AFTER_SECONDS = 1;
+
+    public PasswordHashingSaturatedException() {
+        super("Pool de hash de senha saturado.");
+    }
+}
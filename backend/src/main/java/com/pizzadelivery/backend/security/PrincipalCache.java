@@ -0,0 +1,86 @@
+package com.pizzadelivery.backend.security;
+
+import com.pizzadelivery.backend.cache.ExpiringCache;
+import com.pizzadelivery.backend.entity.CustomerUser;
+import com.pizzadelivery.backend.repository.CustomerUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * E-mail do cliente → id, nome e perfil, em memória por um prazo curto. Evita o {@code findByEmail} a cada
+ * requisição autenticada. Não guarda senha: o login continua lendo o hash do banco.
+ *
+ * Quem altera ou remove um cliente chama {@link #invalidate}; dentro de uma transação a entrada é descartada de
+ * novo após o commit, para que uma leitura concorrente não deixe o valor antigo no cache.
+ */
+@Component
+public class PrincipalCache {
+
+    public static final String CUSTOMER_ROLE = "ROLE_CUSTOMER";
+
+    public record CustomerPrincipal(String customerId, String name, String role) {}
+
+    private final CustomerUserRepository customerUserRepository;
+    private final ExpiringCache<String, CustomerPrincipal> customers;
+    private final long ttlMillis;
+
+    public PrincipalCache(CustomerUserRepository customerUserRepository,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl:10m}") Duration ttl) {
+        this.customerUserRepository = customerUserRepository;
+        this.customers = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public Optional<CustomerPrincipal> findCustomer(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        CustomerPrincipal cached = customers.get(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return customerUserRepository.findByEmail(email).map(this::put);
+    }
+
+    /** Id do cliente autenticado: do claim {@code cid} quando existe, senão pelo cache. */
+    public Optional<String> customerIdOf(Authentication authentication) {
+        String customerId = JwtPrincipal.customerIdOf(authentication);
+        if (customerId != null) {
+            return Optional.of(customerId);
+        }
+        return authentication == null ? Optional.empty() : findCustomer(authentication.getName()).map(CustomerPrincipal::customerId);
+    }
+
+    /** Se o nome é de um cliente já visto; serve de dica para a ordem das buscas no login. */
+    public boolean isKnownCustomer(String email) {
+        return email != null && customers.get(email) != null;
+    }
+
+    public CustomerPrincipal put(CustomerUser customer) {
+        CustomerPrincipal principal = new CustomerPrincipal(customer.getId(), customer.getName(), CUSTOMER_ROLE);
+        customers.put(customer.getEmail(), principal, System.currentTimeMillis() + ttlMillis);
+        return principal;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        customers.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    customers.invalidate(email);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.pizzadelivery.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as rotas caras (login com BCrypt, envio de e-mail, criação de pedido) por IP ou por usuário, com
+ * um balde de fichas por cliente e rota. Roda depois do JwtAuthenticationFilter, para já conhecer o usuário.
+ * Acima do limite responde 429 com {@code Retry-After}.
+ *
+ * O IP é o {@code remoteAddr}; atrás de proxy, configure {@code server.forward-headers-strategy}.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRegistry buckets;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = new TokenBucketRegistry(properties.getMaxKeys(), properties.getStripes(), properties.getIdleTimeout());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (properties.isEnabled()) {
+            long waitNanos = 0;
+            long now = System.nanoTime();
+            String path = request.getRequestURI();
+            List<Map.Entry<String, RateLimitProperties.Route>> charged = new ArrayList<>(2);
+            for (RateLimitProperties.Route route : properties.getRoutes()) {
+                if (!matches(route, request.getMethod(), path)) {
+                    continue;
+                }
+                String client = clientKey(route.getScope(), request);
+                if (client == null) {
+                    continue;
+                }
+                String key = route.getName() + '|' + client;
+                long wait = buckets.tryAcquire(key, route.getCapacity(), route.getRefillPerMinute() / 60d, now);
+                if (wait > 0) {
+                    waitNanos = Math.max(waitNanos, wait);
+                } else {
+                    charged.add(Map.entry(key, route));
+                }
+            }
+            if (waitNanos > 0) {
+                // Recusada por um dos limites: as fichas gastas nos outros voltam (ex.: o limite por IP de
+                // clientes atrás do mesmo NAT não paga pelo pedido que o limite por usuário barrou)
+                charged.forEach(charge -> buckets.release(charge.getKey(), charge.getValue().getCapacity()));
+                reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-ms:60000}")
+    public void evictIdleBuckets() {
+        int removed = buckets.evictIdle(System.nanoTime());
+        if (removed > 0) {
+            log.debug("Limite de requisições: {} baldes parados descartados", removed);
+        }
+    }
+
+    private boolean matches(RateLimitProperties.Route route, String method, String path) {
+        if (route.getMethod() != null && !route.getMethod().isBlank() && !route.getMethod().equalsIgnoreCase(method)) {
+            return false;
+        }
+        return route.getPattern() != null && pathMatcher.match(route.getPattern(), path);
+    }
+
+    // Chave do cliente no escopo da rota; null quando não se aplica (ex.: rota por usuário sem login)
+    private static String clientKey(RateLimitProperties.Scope scope, HttpServletRequest request) {
+        if (scope == RateLimitProperties.Scope.IP) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return "user:" + authentication.getName();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"message\":\"Muitas requisições. Tente novamente em " + retryAfterSeconds + " segundos.\"}");
+    }
+}
@@ -0,0 +1,46 @@
+package com.pizzadelivery.backend.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limites de requisição por rota ({@code rate-limit.*}). Uma requisição passa por todas as rotas que casam
+ * com ela; basta uma sem ficha para a resposta ser 429.
+ */
+@Data
+@Component
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Teto de baldes em memória (somando todas as rotas) e prazo para descartar os parados
+    private int maxKeys = 100_000;
+    private int stripes = 16;
+    private Duration idleTimeout = Duration.ofMinutes(15);
+
+    private List<Route> routes = new ArrayList<>();
+
+    public enum Scope {
+        IP,
+        PRINCIPAL
+    }
+
+    @Data
+    public static class Route {
+        private String name;
+        // Método HTTP; vazio vale para todos
+        private String method;
+        // Padrão Ant, ex.: /api/customer/auth/**
+        private String pattern;
+        private Scope scope = Scope.IP;
+        // Rajada máxima e recarga contínua
+        private int capacity = 10;
+        private double refillPerMinute = 10;
+    }
+}
@@ -0,0 +1,133 @@
+package com.pizzadelivery.backend.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Baldes de fichas por chave (IP, usuário…) para limitar requisições.
+ *
+ * As chaves são repartidas em faixas, cada uma com seu próprio mapa e um teto de entradas, de modo que a
+ * memória total é limitada e a limpeza de uma faixa não percorre as outras. O saldo de cada balde é trocado
+ * por CAS, sem travas. Baldes parados há mais de {@code idleTimeout} são descartados; com um prazo maior que
+ * o tempo de recarga completa das rotas, descartar um balde nunca dá ao cliente mais fichas do que ele teria.
+ */
+public class TokenBucketRegistry {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maxPerStripe;
+    private final long idleNanos;
+
+    public TokenBucketRegistry(int maxKeys, int stripeCount, Duration idleTimeout) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = count - 1;
+        this.maxPerStripe = Math.max(1, maxKeys / count);
+        this.idleNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Tenta consumir uma ficha do balde da chave.
+     * @return 0 se a requisição pode seguir; senão, quantos nanossegundos até haver uma ficha.
+     */
+    public long tryAcquire(String key, int capacity, double permitsPerSecond, long nowNanos) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        Bucket bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            if (stripe.buckets.size() >= maxPerStripe) {
+                stripe.evict(nowNanos, idleNanos, maxPerStripe);
+            }
+            bucket = stripe.buckets.computeIfAbsent(key, k -> new Bucket(capacity, nowNanos));
+        }
+        return bucket.tryAcquire(capacity, permitsPerSecond / 1_000_000_000d, nowNanos);
+    }
+
+    /**
+     * Devolve a ficha consumida por um {@link #tryAcquire} bem-sucedido, sem passar da capacidade. Usado quando
+     * outro limite da mesma requisição a recusou: a requisição não seguiu e não deve contar.
+     */
+    public void release(String key, int capacity) {
+        Bucket bucket = stripes[spread(key.hashCode()) & mask].buckets.get(key);
+        if (bucket != null) {
+            bucket.release(capacity);
+        }
+    }
+
+    /** Descarta os baldes parados em todas as faixas; devolve quantos foram removidos. */
+    public int evictIdle(long nowNanos) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += stripe.evict(nowNanos, idleNanos, Integer.MAX_VALUE);
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        // Remove os parados; se a faixa continuar acima do teto, remove outros até sobrar 10% de folga
+        private int evict(long nowNanos, long idleNanos, int max) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.idleFor(nowNanos) > idleNanos);
+            if (buckets.size() >= max) {
+                int target = max - Math.max(1, max / 10);
+                Iterator<Bucket> iterator = buckets.values().iterator();
+                while (buckets.size() > target && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            return before - buckets.size();
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(int capacity, long nowNanos) {
+            this.state = new AtomicReference<>(new State(capacity, nowNanos));
+        }
+
+        private long tryAcquire(int capacity, double permitsPerNano, long nowNanos) {
+            while (true) {
+                State current = state.get();
+                // Threads diferentes podem ler o relógio fora de ordem: o tempo do balde nunca volta
+                long updated = Math.max(nowNanos, current.updatedNanos);
+                double tokens = Math.min(capacity, current.tokens + (updated - current.updatedNanos) * permitsPerNano);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / permitsPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, updated))) {
+                    return 0;
+                }
+            }
+        }
+
+        private void release(int capacity) {
+            state.updateAndGet(current -> new State(Math.min(capacity, current.tokens + 1), current.updatedNanos));
+        }
+
+        private long idleFor(long nowNanos) {
+            return nowNanos - state.get().updatedNanos;
+        }
+    }
+
+    private record State(double tokens, long updatedNanos) {}
+}
@@ -18,9 +18,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final AdminRepository adminRepository;
     private final CustomerUserRepository customerUserRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Cliente já conhecido pelo cache: vai direto à tabela de clientes, sem consultar a de admins
+        if (principalCache.isKnownCustomer(username)) {
+            UserDetails customer = loadCustomer(username);
+            if (customer != null) {
+                return customer;
+            }
+        }
+
         // Tenta encontrar como Admin primeiro
         var admin = adminRepository.findByUsername(username);
         if (admin.isPresent()) {
@@ -32,25 +41,34 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // Se não for admin, tenta encontrar como Cliente (usando email como username)
-        var customerOpt = customerUserRepository.findByEmail(username);
-        if (customerOpt.isPresent()) {
-            CustomerUser customer = customerOpt.get();
-
-            // *** INÍCIO DA CORREÇÃO ***
-            // Se o usuário foi encontrado mas não possui senha, significa que ele se
-            // cadastrou via Google. Lançamos uma exceção específica para tratar isso.
-            if (customer.getPassword() == null || customer.getPassword().isEmpty()) {
-                throw new UsernameNotFoundException("Usuário registrado com o Google. Por favor, utilize o botão 'Login com Google'.");
-            }
-            // *** FIM DA CORREÇÃO ***
-
-            return new User(
-                    customer.getEmail(),
-                    customer.getPassword(),
-                    List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))
-            );
+        UserDetails customer = loadCustomer(username);
+        if (customer != null) {
+            return customer;
         }
 
         throw new UsernameNotFoundException("Usuário não encontrado: " + username);
     }
+
+    private UserDetails loadCustomer(String email) {
+        var customerOpt = customerUserRepository.findByEmail(email);
+        if (customerOpt.isEmpty()) {
+            return null;
+        }
+        CustomerUser customer = customerOpt.get();
+        principalCache.put(customer);
+
+        // *** INÍCIO DA CORREÇÃO ***
+        // Se o usuário foi encontrado mas não possui senha, significa que ele se
+        // cadastrou via Google. Lançamos uma exceção específica para tratar isso.
+        if (customer.getPassword() == null || customer.getPassword().isEmpty()) {
+            throw new UsernameNotFoundException("Usuário registrado com o Google. Por favor, utilize o botão 'Login com Google'.");
+        }
+        // *** FIM DA CORREÇÃO ***
+
+        return new User(
+                customer.getEmail(),
+                customer.getPassword(),
+                List.of(new SimpleGrantedAuthority(PrincipalCache.CUSTOMER_ROLE))
+        );
+    }
 }
\ No newline at end of file
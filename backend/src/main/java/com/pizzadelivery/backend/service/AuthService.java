@@ -17,6 +17,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final AdminRepository adminRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthDtos.LoginResponse login(AuthDtos.LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -26,6 +27,6 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("Admin not found"));
 
         String token = jwtTokenProvider.createToken(authentication);
-        return new AuthDtos.LoginResponse(token, admin.getName());
+        return new AuthDtos.LoginResponse(token, admin.getName(), refreshTokenService.issue(authentication));
     }
 }
@@ -3,30 +3,62 @@ package com.pizzadelivery.backend.service;
 import com.pizzadelivery.backend.dto.CustomerDtos;
 import com.pizzadelivery.backend.dto.CustomerDtos.AddressDto;
 import com.pizzadelivery.backend.dto.CustomerDtos.RegisterRequest;
+import com.pizzadelivery.backend.dto.ResponseDtos;
 import com.pizzadelivery.backend.entity.Address;
+import com.pizzadelivery.backend.entity.CustomerStats;
 import com.pizzadelivery.backend.entity.CustomerUser;
+import com.pizzadelivery.backend.entity.PasswordResetToken;
+import com.pizzadelivery.backend.entity.TextNormalization;
 import com.pizzadelivery.backend.entity.Order;
 import com.pizzadelivery.backend.repository.AddressRepository;
+import com.pizzadelivery.backend.repository.CustomerStatsRepository;
 import com.pizzadelivery.backend.repository.CustomerUserRepository;
 import com.pizzadelivery.backend.repository.OrderRepository;
+import com.pizzadelivery.backend.repository.PasswordResetTokenRepository;
+import com.pizzadelivery.backend.security.OpaqueTokens;
+import com.pizzadelivery.backend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int DEFAULT_CUSTOMER_PAGE_SIZE = 50;
+    private static final int MAX_CUSTOMER_PAGE_SIZE = 200;
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final Duration RESET_TOKEN_TTL = Duration.ofHours(1);
+
     private final CustomerUserRepository customerUserRepository;
     private final PasswordEncoder passwordEncoder;
     private final OrderRepository orderRepository;
     private final AddressRepository addressRepository;
+    private final CustomerStatsRepository customerStatsRepository;
     private final EmailService emailService;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final PrincipalCache principalCache;
 
 
     public CustomerUser register(RegisterRequest req) {
@@ -43,24 +75,122 @@ public class CustomerService {
         return customerUserRepository.save(newUser);
     }
 
-    public List<Order> findOrdersForCustomer(String email) {
-        CustomerUser customer = customerUserRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Cliente não encontrado: " + email));
+    /**
+     * Histórico resumido do cliente, paginado por cursor (createdAt, id) do mais recente para o mais antigo.
+     * Busca uma linha a mais que o limite para saber se existe próxima página.
+     */
+    @Transactional(readOnly = true)
+    public ResponseDtos.CursorPage<ResponseDtos.OrderSummaryDto> findOrderSummariesForCustomer(String customerId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<ResponseDtos.OrderSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findSummariesByCustomerId(customerId, page);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = orderRepository.findSummariesByCustomerIdBefore(customerId, LocalDateTime.parse(position[0]), position[1], page);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new ResponseDtos.CursorPage<>(rows, null);
+        }
+        List<ResponseDtos.OrderSummaryDto> items = rows.subList(0, pageSize);
+        ResponseDtos.OrderSummaryDto last = items.get(items.size() - 1);
+        return new ResponseDtos.CursorPage<>(items, encodeCursor(last.createdAt(), last.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Order> findOrderForCustomer(String customerId, String orderId) {
+        return orderRepository.findByIdAndCustomerUser_Id(orderId, customerId);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, String id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            LocalDateTime.parse(position[0]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+
+    /**
+     * Página de clientes, do cadastro mais recente para o mais antigo. Os totais de pedidos vêm de
+     * customer_stats e os endereços de uma única consulta para todos os clientes da página.
+     */
+    @Transactional(readOnly = true)
+    public CustomerDtos.CustomerPage getCustomersPage(Integer page, Integer size) {
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_CUSTOMER_PAGE_SIZE : Math.max(1, Math.min(size, MAX_CUSTOMER_PAGE_SIZE));
+        Page<CustomerUser> customers = customerUserRepository.findAll(
+                PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("id"))));
+
+        return new CustomerDtos.CustomerPage(convertToDtos(customers.getContent()), pageNumber, pageSize,
+                customers.getTotalElements(), customers.getTotalPages());
+    }
+
+    /**
+     * Busca de clientes para o atendimento por telefone. Texto composto só de dígitos e pontuação busca
+     * por prefixo de WhatsApp ou CPF; qualquer outro texto busca por prefixo do nome (sem acentos) ou do e-mail.
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerDtos.CustomerResponseDto> searchCustomers(String query, Integer limit) {
+        String text = query == null ? "" : query.replaceAll("[%_\\\\]", "").trim();
+        if (text.length() < 2) {
+            return List.of();
+        }
+        PageRequest page = PageRequest.of(0, limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
 
-        return orderRepository.findByCustomerUser_IdOrderByCreatedAtDesc(customer.getId());
+        String digits = TextNormalization.digitsOnly(text);
+        boolean numeric = digits != null && text.replaceAll("[\\d\\s().+/-]", "").isEmpty();
+        List<CustomerUser> customers = numeric
+                ? customerUserRepository.searchByWhatsappOrCpf(digits + "%", page)
+                : customerUserRepository.searchByNameOrEmail(TextNormalization.foldText(text) + "%", page);
+        return convertToDtos(customers);
     }
 
-    public List<CustomerDtos.CustomerResponseDto> getAllCustomers() {
-        return customerUserRepository.findAll().stream()
-                .map(this::convertToDto)
+    // Totais e endereços de uma lista de clientes com uma consulta para cada, em vez de uma por cliente
+    private List<CustomerDtos.CustomerResponseDto> convertToDtos(List<CustomerUser> customers) {
+        List<String> ids = customers.stream().map(CustomerUser::getId).collect(Collectors.toList());
+        Map<String, CustomerStats> totals = ids.isEmpty() ? Map.of() : statsById(customerStatsRepository.findAllById(ids));
+        Map<String, List<AddressDto>> addresses = ids.isEmpty() ? Map.of()
+                : groupAddresses(addressRepository.findByCustomer_IdIn(ids));
+        return customers.stream()
+                .map(user -> convertToDto(user, addresses.get(user.getId()), totals.get(user.getId())))
                 .collect(Collectors.toList());
     }
 
+    private static Map<String, CustomerStats> statsById(List<CustomerStats> stats) {
+        return stats.stream().collect(Collectors.toMap(CustomerStats::getCustomerUserId, s -> s));
+    }
+
+    private Map<String, List<AddressDto>> groupAddresses(List<Address> addresses) {
+        return addresses.stream()
+                .filter(address -> address.getCustomer() != null)
+                .collect(Collectors.groupingBy(address -> address.getCustomer().getId(),
+                        Collectors.mapping(this::convertToDto, Collectors.toList())));
+    }
+
     @Transactional
     public CustomerDtos.CustomerResponseDto updateCustomer(String id, CustomerDtos.AdminCustomerUpdateRequest updateRequest) {
         CustomerUser customer = customerUserRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado com o id: " + id));
 
+        // As sessões abertas estão ligadas ao e-mail antigo
+        if (!Objects.equals(customer.getEmail(), updateRequest.email())) {
+            refreshTokenService.revokeAll(customer.getEmail());
+        }
+        principalCache.invalidate(customer.getEmail());
         customer.setName(updateRequest.name());
         customer.setEmail(updateRequest.email());
         customer.setWhatsapp(updateRequest.whatsapp());
@@ -70,11 +200,13 @@ public class CustomerService {
         return convertToDto(updatedCustomer);
     }
 
+    @Transactional
     public void deleteCustomerById(String id) {
-        if (!customerUserRepository.existsById(id)) {
-            throw new RuntimeException("Cliente não encontrado com o id: " + id);
-        }
-        customerUserRepository.deleteById(id);
+        CustomerUser customer = customerUserRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Cliente não encontrado com o id: " + id));
+        refreshTokenService.revokeAll(customer.getEmail());
+        principalCache.invalidate(customer.getEmail());
+        customerUserRepository.delete(customer);
     }
 
     @Transactional
@@ -82,6 +214,12 @@ public class CustomerService {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new RuntimeException("Endereço não encontrado com o id: " + addressId));
 
+        String fingerprint = Address.fingerprintOf(addressDto.zipCode(), addressDto.street(), addressDto.number());
+        if (address.getCustomer() != null && addressRepository.existsByCustomer_IdAndFingerprintAndIdNot(
+                address.getCustomer().getId(), fingerprint, addressId)) {
+            throw new RuntimeException("O cliente já possui um endereço com este CEP, rua e número.");
+        }
+
         address.setStreet(addressDto.street());
         address.setNumber(addressDto.number());
         address.setComplement(addressDto.complement());
@@ -101,14 +239,18 @@ public class CustomerService {
         List<AddressDto> addressDtos = user.getAddresses() != null
                 ? user.getAddresses().stream().map(this::convertToDto).collect(Collectors.toList())
                 : List.of();
+        return convertToDto(user, addressDtos, customerStatsRepository.findById(user.getId()).orElse(null));
+    }
+
+    private CustomerDtos.CustomerResponseDto convertToDto(CustomerUser user, List<AddressDto> addresses, CustomerStats stats) {
+        List<AddressDto> addressDtos = addresses != null ? addresses : Collections.emptyList();
 
         boolean isEmailVerified = user.getEmailVerified() != null && user.getEmailVerified();
 
         // --- INÍCIO DA ALTERAÇÃO ---
-        // Busca todos os pedidos do cliente para calcular os totais
-        List<Order> orders = orderRepository.findByCustomerUser_IdOrderByCreatedAtDesc(user.getId());
-        int totalOrders = orders.size();
-        double totalSpent = orders.stream().mapToDouble(Order::getTotalAmount).sum();
+        // Totais lidos de customer_stats, mantidos a cada pedido; nunca recalculados a partir dos pedidos
+        int totalOrders = stats != null ? (int) stats.getTotalOrders() : 0;
+        double totalSpent = stats != null ? stats.getTotalSpent() : 0;
 
         return new CustomerDtos.CustomerResponseDto(
                 user.getId(),
@@ -124,7 +266,10 @@ public class CustomerService {
                 user.getLastLogin(),
                 user.getCreatedAt(),
                 totalOrders,
-                totalSpent
+                totalSpent,
+                stats != null ? stats.getFirstOrderAt() : null,
+                stats != null ? stats.getLastOrderAt() : null,
+                stats != null ? stats.getAverageTicket() : 0
         );
         // --- FIM DA ALTERAÇÃO ---
     }
@@ -151,28 +296,46 @@ public class CustomerService {
             throw new RuntimeException("Contas criadas com o Google não podem ter a senha redefinida.");
         }
 
-        String token = UUID.randomUUID().toString();
-        customer.setPasswordResetToken(token);
-        customer.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(1)); // Token válido por 1 hora
-        customerUserRepository.save(customer);
+        // Um pedido novo invalida os anteriores; só o hash do token é gravado
+        passwordResetTokenRepository.deleteByCustomerId(customer.getId());
+        String token = OpaqueTokens.newToken();
+        LocalDateTime now = LocalDateTime.now();
+        passwordResetTokenRepository.save(PasswordResetToken.builder()
+                .tokenHash(OpaqueTokens.hash(token))
+                .customerUser(customer)
+                .createdAt(now)
+                .expiresAt(now.plus(RESET_TOKEN_TTL))
+                .build());
 
         emailService.sendPasswordResetEmail(customer.getEmail(), token);
     }
 
     @Transactional
     public void completePasswordReset(String token, String newPassword) {
-        CustomerUser customer = customerUserRepository.findAll().stream()
-                .filter(c -> token.equals(c.getPasswordResetToken()))
-                .findFirst()
+        if (token == null || token.isBlank()) {
+            throw new RuntimeException("Token de redefinição inválido.");
+        }
+        PasswordResetToken resetToken = passwordResetTokenRepository.findWithCustomerByTokenHash(OpaqueTokens.hash(token))
                 .orElseThrow(() -> new RuntimeException("Token de redefinição inválido."));
 
-        if (customer.getPasswordResetTokenExpiry().isBefore(LocalDateTime.now())) {
+        if (resetToken.getExpiresAt().isBefore(LocalDateTime.now())) {
             throw new RuntimeException("Token de redefinição expirado.");
         }
 
+        CustomerUser customer = resetToken.getCustomerUser();
         customer.setPassword(passwordEncoder.encode(newPassword));
-        customer.setPasswordResetToken(null);
-        customer.setPasswordResetTokenExpiry(null);
         customerUserRepository.save(customer);
+        passwordResetTokenRepository.deleteByCustomerId(customer.getId());
+        // Quem tinha a senha antiga não continua logado
+        refreshTokenService.revokeAll(customer.getEmail());
+    }
+
+    @Scheduled(cron = "${password-reset.purge-cron:0 15 * * * *}")
+    @Transactional
+    public void purgeExpiredResetTokens() {
+        int purged = passwordResetTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Tokens de redefinição expirados removidos: {}", purged);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.CustomerStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantém a tabela customer_stats. Como o OrderRollupService, os ouvintes são síncronos e rodam dentro
+ * da transação do pedido.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerStatsService {
+
+    private final CustomerStatsRepository customerStatsRepository;
+
+    @EventListener
+    public void onOrderCreated(OrderEvents.OrderCreated event) {
+        if (event.customerId() != null) {
+            customerStatsRepository.addDeltas(event.customerId(), 1, event.totalAmount(), event.createdAt());
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        if (event.customerId() == null) {
+            return;
+        }
+        boolean wasCancelled = event.previousStatus() == OrderStatus.CANCELLED;
+        boolean isCancelled = event.newStatus() == OrderStatus.CANCELLED;
+        if (wasCancelled != isCancelled) {
+            int sign = isCancelled ? -1 : 1;
+            customerStatsRepository.addDeltas(event.customerId(), sign, sign * event.totalAmount(), null);
+        }
+    }
+
+    // Recalcula todos os totais a partir dos pedidos (correção manual de divergências)
+    @Transactional
+    public int rebuild() {
+        customerStatsRepository.lockForRebuild();
+        customerStatsRepository.deleteAllRows();
+        int customers = customerStatsRepository.insertFromOrders();
+        log.info("Totais de clientes reconstruídos: {} clientes", customers);
+        return customers;
+    }
+}
@@ -0,0 +1,156 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.OrderDtos;
+import com.pizzadelivery.backend.entity.DailyCloseReport;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.repository.DailyCloseReportRepository;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Fechamento do dia. Um job agendado (padrão: 00:05) fecha o dia anterior, e o administrador pode
+ * gerar de novo qualquer dia.
+ *
+ * Os pedidos do dia são lidos uma única vez com cursor; a leitura entrega lotes que são agregados em
+ * paralelo no pool comum e os parciais são somados no final. A loja é única, então há um relatório por dia.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyCloseService {
+
+    private static final int BATCH_SIZE = 2048;
+
+    private final OrderRepository orderRepository;
+    private final DailyCloseReportRepository dailyCloseReportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${close.cron:0 5 0 * * *}")
+    public void closeYesterday() {
+        DailyCloseReport report = close(LocalDate.now().minusDays(1));
+        log.info("Fechamento de {}: {} pedidos, receita {}", report.getDay(), report.getOrderCount(), report.getRevenue());
+    }
+
+    // Transação programática: o job agendado chama este método de dentro da própria classe
+    public DailyCloseReport close(LocalDate day) {
+        return transactionTemplate.execute(status -> generate(day));
+    }
+
+    private DailyCloseReport generate(LocalDate day) {
+        List<CompletableFuture<Totals>> partials = new ArrayList<>();
+        try (Stream<OrderDtos.CloseRow> rows = orderRepository.streamForClose(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+            Iterator<OrderDtos.CloseRow> iterator = rows.iterator();
+            List<OrderDtos.CloseRow> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE) {
+                    partials.add(aggregateAsync(batch));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                partials.add(aggregateAsync(batch));
+            }
+        }
+
+        Totals totals = partials.stream()
+                .map(CompletableFuture::join)
+                .reduce(new Totals(), Totals::merge);
+
+        DailyCloseReport report = DailyCloseReport.builder()
+                .day(day)
+                .generatedAt(LocalDateTime.now())
+                .orderCount(totals.orderCount)
+                .revenue(totals.revenue)
+                .averageTicket(totals.orderCount == 0 ? 0 : totals.revenue / totals.orderCount)
+                .deliveryCount(totals.deliveryCount)
+                .deliveryRevenue(totals.deliveryRevenue)
+                .pickupCount(totals.pickupCount)
+                .pickupRevenue(totals.pickupRevenue)
+                .cancelledCount(totals.cancelledCount)
+                .cancelledAmount(totals.cancelledAmount)
+                .revenueByPaymentMethod(totals.revenueByPaymentMethod)
+                .revenueByCardBrand(totals.revenueByCardBrand)
+                .build();
+        return dailyCloseReportRepository.save(report);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyCloseReport> getReports(LocalDate from, LocalDate to) {
+        return dailyCloseReportRepository.findByDayBetweenOrderByDayAsc(from, to);
+    }
+
+    private static CompletableFuture<Totals> aggregateAsync(List<OrderDtos.CloseRow> batch) {
+        return CompletableFuture.supplyAsync(() -> {
+            Totals totals = new Totals();
+            batch.forEach(totals::add);
+            return totals;
+        });
+    }
+
+    // Acumulador parcial de um lote; só é tocado por uma thread até o merge
+    private static final class Totals {
+        private long orderCount;
+        private double revenue;
+        private long deliveryCount;
+        private double deliveryRevenue;
+        private long pickupCount;
+        private double pickupRevenue;
+        private long cancelledCount;
+        private double cancelledAmount;
+        private final Map<String, Double> revenueByPaymentMethod = new HashMap<>();
+        private final Map<String, Double> revenueByCardBrand = new HashMap<>();
+
+        private void add(OrderDtos.CloseRow row) {
+            if (row.status() == OrderStatus.CANCELLED) {
+                cancelledCount++;
+                cancelledAmount += row.totalAmount();
+                return;
+            }
+            orderCount++;
+            revenue += row.totalAmount();
+            if (row.deliveryType() == DeliveryType.PICKUP) {
+                pickupCount++;
+                pickupRevenue += row.totalAmount();
+            } else {
+                deliveryCount++;
+                deliveryRevenue += row.totalAmount();
+            }
+            String method = row.paymentMethod() != null ? row.paymentMethod().name() : "NÃO INFORMADO";
+            revenueByPaymentMethod.merge(method, row.totalAmount(), Double::sum);
+            if (row.cardBrand() != null && !row.cardBrand().isBlank()) {
+                revenueByCardBrand.merge(row.cardBrand().trim().toUpperCase(), row.totalAmount(), Double::sum);
+            }
+        }
+
+        private Totals merge(Totals other) {
+            orderCount += other.orderCount;
+            revenue += other.revenue;
+            deliveryCount += other.deliveryCount;
+            deliveryRevenue += other.deliveryRevenue;
+            pickupCount += other.pickupCount;
+            pickupRevenue += other.pickupRevenue;
+            cancelledCount += other.cancelledCount;
+            cancelledAmount += other.cancelledAmount;
+            other.revenueByPaymentMethod.forEach((key, value) -> revenueByPaymentMethod.merge(key, value, Double::sum));
+            other.revenueByCardBrand.forEach((key, value) -> revenueByCardBrand.merge(key, value, Double::sum));
+            return this;
+        }
+    }
+}
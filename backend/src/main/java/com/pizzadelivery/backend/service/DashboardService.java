@@ -1,68 +1,65 @@
 package com.pizzadelivery.backend.service;
 
+import com.pizzadelivery.backend.cache.SingleFlightCache;
 import com.pizzadelivery.backend.dto.DashboardDtos;
-import com.pizzadelivery.backend.entity.Order;
-import com.pizzadelivery.backend.enums.OrderStatus; // --- ADICIONE ESTE IMPORT ---
-import com.pizzadelivery.backend.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import com.pizzadelivery.backend.metrics.OrderMetricsEngine;
+import com.pizzadelivery.backend.repository.SalesFactRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 public class DashboardService {
 
-    private final OrderRepository orderRepository;
+    private final SalesFactRepository salesFactRepository;
+    private final OrderMetricsEngine orderMetricsEngine;
 
-    public DashboardDtos.DashboardStats getDashboardStats() {
-        LocalDate today = LocalDate.now();
-
-        // Time ranges
-        LocalDateTime todayStart = today.atStartOfDay();
-        LocalDateTime todayEnd = today.atTime(23, 59, 59);
-        LocalDateTime weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
-        LocalDateTime monthStart = today.with(TemporalAdjusters.firstDayOfMonth()).atStartOfDay();
-
-        // Orders count
-        long todayOrders = orderRepository.countByCreatedAtBetween(todayStart, todayEnd);
-        long weeklyOrders = orderRepository.countByCreatedAtBetween(weekStart, todayEnd);
-        long monthlyOrders = orderRepository.countByCreatedAtBetween(monthStart, todayEnd);
-
-        // Pending orders
-        List<Order> allOrders = orderRepository.findAll();
-        // --- CORREÇÃO APLICADA AQUI ---
-        // Comparamos com Enums em vez de Strings em minúsculas.
-        long pendingOrders = allOrders.stream()
-                .filter(o -> List.of(OrderStatus.RECEIVED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY)
-                        .contains(o.getStatus()))
-                .count();
+    // Várias abas do painel atualizando juntas compartilham um único cálculo por chave
+    private final SingleFlightCache cache = new SingleFlightCache();
+    private final Duration statsTtl;
+    private final Duration weeklySalesTtl;
+    private final Duration salesByTypeTtl;
+    private final Duration liveTtl;
 
-        // Revenue calculation
-        double todayRevenue = getRevenueForPeriod(todayStart, todayEnd);
-        double weeklyRevenue = getRevenueForPeriod(weekStart, todayEnd);
-        double monthlyRevenue = getRevenueForPeriod(monthStart, todayEnd);
-
-        DashboardDtos.Revenue revenue = new DashboardDtos.Revenue(todayRevenue, weeklyRevenue, monthlyRevenue);
-        return new DashboardDtos.DashboardStats(todayOrders, weeklyOrders, monthlyOrders, pendingOrders, revenue);
+    public DashboardService(SalesFactRepository salesFactRepository,
+                            OrderMetricsEngine orderMetricsEngine,
+                            @Value("${dashboard.cache.stats-ttl:2s}") Duration statsTtl,
+                            @Value("${dashboard.cache.weekly-sales-ttl:30s}") Duration weeklySalesTtl,
+                            @Value("${dashboard.cache.sales-by-type-ttl:60s}") Duration salesByTypeTtl,
+                            @Value("${dashboard.cache.live-ttl:2s}") Duration liveTtl) {
+        this.salesFactRepository = salesFactRepository;
+        this.orderMetricsEngine = orderMetricsEngine;
+        this.statsTtl = statsTtl;
+        this.weeklySalesTtl = weeklySalesTtl;
+        this.salesByTypeTtl = salesByTypeTtl;
+        this.liveTtl = liveTtl;
     }
 
-    private double getRevenueForPeriod(LocalDateTime start, LocalDateTime end) {
-        return orderRepository.findByCreatedAtBetween(start, end).stream()
-                .mapToDouble(Order::getTotalAmount)
-                .sum();
+    // Totais servidos da memória; o banco só é lido na reconstrução do motor de métricas
+    public DashboardDtos.DashboardStats getDashboardStats() {
+        return cache.get("stats", statsTtl, () -> orderMetricsEngine.stats(LocalDateTime.now()));
     }
 
     public List<DashboardDtos.DailySale> getWeeklySalesChartData() {
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        return orderRepository.findRevenuePerDaySince(sevenDaysAgo);
+        return cache.get("weekly-sales", weeklySalesTtl, () -> {
+            LocalDate today = LocalDate.now();
+            return orderMetricsEngine.dailyRevenue(today.minusDays(7), today);
+        });
+    }
+
+    public List<DashboardDtos.MinuteActivity> getLiveActivity(int minutes) {
+        // Chave pelo valor já limitado: um parâmetro arbitrário não cria entradas novas no cache
+        int window = orderMetricsEngine.clampMinutes(minutes);
+        return cache.get("live:" + window, liveTtl, () -> orderMetricsEngine.recentMinutes(LocalDateTime.now(), window));
     }
 
+    @Transactional(readOnly = true)
     public List<DashboardDtos.SalesByPizzaType> getSalesByPizzaTypeChartData() {
-        return orderRepository.countOrdersByPizzaType();
+        return cache.get("sales-by-type", salesByTypeTtl, salesFactRepository::sumPizzasByType);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.DispatchDtos;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Motor de despacho: agrupa pedidos de entrega prontos para sair em lotes por entregador.
+ *
+ * Um pedido entra no motor quando passa para PREPARING (não existe um status "pronto") e sai quando
+ * deixa esse status. Cada zona (prefixo do CEP ou, na falta dele, o bairro) tem no máximo um lote
+ * aberto; o lote aceita pedidos até atingir o tamanho máximo ou até a janela de tempo expirar, e então
+ * um novo lote é aberto. Tudo é incremental: nenhuma operação recalcula os lotes do zero.
+ */
+@Slf4j
+@Service
+public class DispatchService {
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final int zipPrefixLength;
+    private final long windowMinutes;
+    private final int maxBatchSize;
+
+    // Estado protegido pelo monitor desta instância; as operações são pequenas e raras.
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+    private final Map<String, String> batchIdByOrder = new HashMap<>();
+    private final Map<String, String> openBatchIdByZone = new HashMap<>();
+
+    public DispatchService(OrderRepository orderRepository,
+                           OrderService orderService,
+                           @Value("${dispatch.zip-prefix-length:5}") int zipPrefixLength,
+                           @Value("${dispatch.window-minutes:10}") long windowMinutes,
+                           @Value("${dispatch.max-batch-size:4}") int maxBatchSize) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.zipPrefixLength = zipPrefixLength;
+        this.windowMinutes = windowMinutes;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public synchronized List<DispatchDtos.ProposedBatch> getProposedBatches() {
+        return batches.values().stream()
+                .map(Batch::toDto)
+                .sorted(Comparator.comparing(DispatchDtos.ProposedBatch::oldestReadySince))
+                .toList();
+    }
+
+    /**
+     * Atribui o lote a um entregador. O lote é retirado do motor antes de tocar o banco, de modo que dois
+     * administradores não consigam despachá-lo ao mesmo tempo; se a transação falhar, os pedidos que ainda
+     * aguardam despacho voltam para o motor.
+     */
+    public DispatchDtos.BatchAssignment assignBatch(String batchId, String courierName) {
+        Batch batch = claim(batchId);
+        List<String> orderIds = new ArrayList<>(batch.readySince.keySet());
+        LocalDateTime dispatchedAt = LocalDateTime.now();
+        try {
+            orderService.dispatchOrders(orderIds, batchId, courierName, dispatchedAt);
+        } catch (RuntimeException e) {
+            orderRepository.findDispatchCandidatesByIds(orderIds, OrderStatus.PREPARING, DeliveryType.DELIVERY)
+                    .forEach(this::add);
+            throw e;
+        }
+        return new DispatchDtos.BatchAssignment(batchId, courierName, orderIds, dispatchedAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingCandidates() {
+        List<DispatchDtos.DispatchCandidate> candidates =
+                orderRepository.findDispatchCandidates(OrderStatus.PREPARING, DeliveryType.DELIVERY);
+        candidates.stream()
+                .sorted(Comparator.comparing(DispatchDtos.DispatchCandidate::readySince))
+                .forEach(this::add);
+        log.info("Motor de despacho iniciado com {} pedidos aguardando entregador", candidates.size());
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        if (event.newStatus() == OrderStatus.PREPARING && event.deliveryType() == DeliveryType.DELIVERY) {
+            orderRepository.findDispatchCandidate(event.orderId())
+                    .map(c -> new DispatchDtos.DispatchCandidate(c.orderId(), c.zipCode(), c.neighborhood(), event.changedAt()))
+                    .ifPresent(this::add);
+        } else if (event.previousStatus() == OrderStatus.PREPARING) {
+            remove(event.orderId());
+        }
+    }
+
+    synchronized void add(DispatchDtos.DispatchCandidate candidate) {
+        if (batchIdByOrder.containsKey(candidate.orderId())) {
+            return;
+        }
+        String zone = zoneOf(candidate);
+        Batch open = batches.get(openBatchIdByZone.get(zone));
+        if (open == null
+                || open.readySince.size() >= maxBatchSize
+                || candidate.readySince().isAfter(open.openedAt.plusMinutes(windowMinutes))) {
+            open = new Batch(UUID.randomUUID().toString(), zone, candidate.readySince());
+            batches.put(open.id, open);
+            openBatchIdByZone.put(zone, open.id);
+        }
+        open.readySince.put(candidate.orderId(), candidate.readySince());
+        batchIdByOrder.put(candidate.orderId(), open.id);
+    }
+
+    synchronized void remove(String orderId) {
+        String batchId = batchIdByOrder.remove(orderId);
+        if (batchId == null) {
+            return;
+        }
+        Batch batch = batches.get(batchId);
+        batch.readySince.remove(orderId);
+        if (batch.readySince.isEmpty()) {
+            batches.remove(batchId);
+            openBatchIdByZone.remove(batch.zone, batchId);
+        }
+    }
+
+    private synchronized Batch claim(String batchId) {
+        Batch batch = batches.remove(batchId);
+        if (batch == null) {
+            throw new IllegalStateException("Lote não encontrado ou já atribuído: " + batchId);
+        }
+        batch.readySince.keySet().forEach(batchIdByOrder::remove);
+        openBatchIdByZone.remove(batch.zone, batchId);
+        return batch;
+    }
+
+    private String zoneOf(DispatchDtos.DispatchCandidate candidate) {
+        String zipDigits = candidate.zipCode() == null ? "" : candidate.zipCode().replaceAll("\\D", "");
+        if (zipDigits.length() >= zipPrefixLength) {
+            return "CEP " + zipDigits.substring(0, zipPrefixLength);
+        }
+        if (candidate.neighborhood() != null && !candidate.neighborhood().isBlank()) {
+            return "Bairro " + candidate.neighborhood().trim().toLowerCase();
+        }
+        return "Sem zona";
+    }
+
+    private static final class Batch {
+        private final String id;
+        private final String zone;
+        private final LocalDateTime openedAt;
+        private final LinkedHashMap<String, LocalDateTime> readySince = new LinkedHashMap<>();
+
+        private Batch(String id, String zone, LocalDateTime openedAt) {
+            this.id = id;
+            this.zone = zone;
+            this.openedAt = openedAt;
+        }
+
+        private DispatchDtos.ProposedBatch toDto() {
+            LocalDateTime oldest = readySince.values().stream().min(Comparator.naturalOrder()).orElse(openedAt);
+            return new DispatchDtos.ProposedBatch(id, zone, List.copyOf(readySince.keySet()), oldest);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.entity.EmailOutboxMessage;
+import com.pizzadelivery.backend.enums.EmailOutboxStatus;
+import com.pizzadelivery.backend.repository.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia os e-mails da fila de saída (email_outbox).
+ *
+ * A cada ciclo um lote de mensagens vencidas é reservado numa transação curta (SKIP LOCKED + prazo de
+ * envio), e o lote é dividido em blocos enviados por um pool de tamanho fixo. Cada bloco vai numa única
+ * chamada ao MailSender, que abre uma conexão SMTP e envia todas as mensagens por ela. Falhas voltam para a
+ * fila com espera exponencial; depois de {@code maxAttempts} tentativas a mensagem fica como FAILED.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lease;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 MailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.chunk-size:10}") int chunkSize,
+                                 @Value("${mail.outbox.concurrency:2}") int concurrency,
+                                 @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${mail.outbox.backoff-base:30s}") Duration backoffBase,
+                                 @Value("${mail.outbox.backoff-max:1h}") Duration backoffMax,
+                                 @Value("${mail.outbox.lease:5m}") Duration lease,
+                                 @Value("${mail.outbox.retention:7d}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBase = backoffBase;
+        this.backoffMax = backoffMax;
+        this.lease = lease;
+        this.retention = retention;
+
+        // Um ciclo nunca tem mais blocos do que batchSize / chunkSize; o que passar disso roda na própria thread
+        int threads = Math.max(1, concurrency);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, this.batchSize / this.chunkSize + 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-ms:2000}")
+    public void drain() {
+        try {
+            // Continua enquanto os lotes vierem cheios, para não esperar o próximo ciclo com fila acumulada
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Falha ao despachar a fila de e-mails", e);
+        }
+    }
+
+    /** Reserva e envia um lote; devolve quantas mensagens foram reservadas. */
+    int dispatchBatch() {
+        List<EmailOutboxMessage> batch = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int start = 0; start < batch.size(); start += chunkSize) {
+            List<EmailOutboxMessage> chunk = batch.subList(start, Math.min(batch.size(), start + chunkSize));
+            sends.add(CompletableFuture.runAsync(() -> send(chunk), executor));
+        }
+        sends.forEach(CompletableFuture::join);
+        return batch.size();
+    }
+
+    private List<EmailOutboxMessage> claim(LocalDateTime now) {
+        List<EmailOutboxMessage> due = emailOutboxRepository.lockDue(now, batchSize);
+        if (!due.isEmpty()) {
+            emailOutboxRepository.markSending(due.stream().map(EmailOutboxMessage::getId).toList(),
+                    EmailOutboxStatus.SENDING, now.plus(lease));
+        }
+        return due;
+    }
+
+    private void send(List<EmailOutboxMessage> chunk) {
+        SimpleMailMessage[] mails = new SimpleMailMessage[chunk.size()];
+        Map<SimpleMailMessage, EmailOutboxMessage> byMail = new IdentityHashMap<>();
+        for (int i = 0; i < mails.length; i++) {
+            EmailOutboxMessage row = chunk.get(i);
+            mails[i] = new SimpleMailMessage();
+            mails[i].setTo(row.getRecipient());
+            mails[i].setSubject(row.getSubject());
+            mails[i].setText(row.getBody());
+            byMail.put(mails[i], row);
+        }
+
+        try {
+            mailSender.send(mails);
+            markSent(chunk);
+        } catch (MailSendException e) {
+            // Só as mensagens listadas falharam; as demais foram aceitas pelo servidor na mesma conexão
+            List<EmailOutboxMessage> sent = new ArrayList<>(chunk);
+            e.getFailedMessages().forEach((mail, cause) -> {
+                EmailOutboxMessage row = byMail.get(mail);
+                if (row != null) {
+                    sent.remove(row);
+                    markFailed(row, cause);
+                }
+            });
+            markSent(sent);
+        } catch (MailException e) {
+            chunk.forEach(row -> markFailed(row, e));
+        }
+    }
+
+    private void markSent(List<EmailOutboxMessage> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> ids = rows.stream().map(EmailOutboxMessage::getId).toList();
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxRepository.markSent(ids, EmailOutboxStatus.SENT, LocalDateTime.now()));
+    }
+
+    private void markFailed(EmailOutboxMessage row, Exception cause) {
+        int attempts = row.getAttempts() + 1;
+        String error = cause != null ? String.valueOf(cause.getMessage()) : "Falha desconhecida";
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        boolean exhausted = attempts >= maxAttempts;
+        EmailOutboxStatus status = exhausted ? EmailOutboxStatus.FAILED : EmailOutboxStatus.PENDING;
+        LocalDateTime next = exhausted ? null : LocalDateTime.now().plus(backoff(attempts));
+        if (exhausted) {
+            log.warn("E-mail {} para {} descartado após {} tentativas: {}", row.getId(), row.getRecipient(), attempts, error);
+        }
+        String lastError = error;
+        transactionTemplate.executeWithoutResult(s ->
+                emailOutboxRepository.markFailed(row.getId(), status, attempts, next, lastError));
+    }
+
+    /** Espera antes da próxima tentativa: base, 2×base, 4×base… limitada a backoffMax. */
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = backoffBase.multipliedBy(1L << shift);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        Integer removed = transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteSentBefore(EmailOutboxStatus.SENT, LocalDateTime.now().minus(retention)));
+        log.info("Fila de e-mails: {} mensagens enviadas removidas", removed);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
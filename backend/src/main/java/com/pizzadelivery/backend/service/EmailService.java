@@ -1,25 +1,46 @@
 package com.pizzadelivery.backend.service;
 
+import com.pizzadelivery.backend.entity.EmailOutboxMessage;
+import com.pizzadelivery.backend.enums.EmailOutboxStatus;
+import com.pizzadelivery.backend.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Composição dos e-mails da aplicação. Nada é enviado aqui: a mensagem entra na fila de saída
+ * (email_outbox) dentro da transação de quem chamou e o EmailOutboxDispatcher envia depois. Assim uma
+ * transação nunca espera pelo servidor SMTP, e um rollback descarta o e-mail junto.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendPasswordResetEmail(String to, String token) {
         String resetUrl = "http://localhost:8080/reset-password?token=" + token;
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject("Redefinição de Senha - PizzaExpress");
-        message.setText("Para redefinir sua senha, clique no link abaixo:\n\n"
-                + resetUrl + "\n\n"
-                + "Se você não solicitou uma redefinição de senha, por favor, ignore este e-mail.");
+        enqueue(to, "Redefinição de Senha - PizzaExpress",
+                "Para redefinir sua senha, clique no link abaixo:\n\n"
+                        + resetUrl + "\n\n"
+                        + "Se você não solicitou uma redefinição de senha, por favor, ignore este e-mail.");
+    }
 
-        mailSender.send(message);
+    @Transactional(propagation = Propagation.MANDATORY)
+    public EmailOutboxMessage enqueue(String to, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        return emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(EmailOutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.OrderDtos;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modelo em memória da carga da cozinha, usado para prometer um horário de entrega realista.
+ *
+ * Mantém a profundidade da fila por etapa (RECEIVED, PREPARING, OUT_FOR_DELIVERY) e médias móveis
+ * exponenciais do tempo de preparo e do tempo de entrega. Tudo é atualizado incrementalmente pelos
+ * eventos de pedido, de modo que a estimativa de um novo pedido custa O(1) e não toca o banco.
+ */
+@Slf4j
+@Service
+public class KitchenLoadEstimator {
+
+    // Peso de cada nova amostra na média móvel
+    private static final double SMOOTHING = 0.2;
+    // Amostras acima disso são pedidos esquecidos no painel, não tempo real de preparo/entrega
+    private static final long MAX_SAMPLE_MINUTES = 240;
+
+    private final OrderRepository orderRepository;
+    private final int parallelSlots;
+
+    private final Map<OrderStatus, AtomicInteger> queueDepth = new EnumMap<>(OrderStatus.class);
+    private final Map<String, Long> stageEnteredAt = new ConcurrentHashMap<>();
+    private final AtomicLong prepMinutesBits;
+    private final AtomicLong deliveryMinutesBits;
+
+    public KitchenLoadEstimator(OrderRepository orderRepository,
+                                @Value("${kitchen.parallel-slots:4}") int parallelSlots,
+                                @Value("${kitchen.default-prep-minutes:20}") double defaultPrepMinutes,
+                                @Value("${kitchen.default-delivery-minutes:25}") double defaultDeliveryMinutes) {
+        this.orderRepository = orderRepository;
+        this.parallelSlots = Math.max(1, parallelSlots);
+        this.prepMinutesBits = new AtomicLong(Double.doubleToLongBits(defaultPrepMinutes));
+        this.deliveryMinutesBits = new AtomicLong(Double.doubleToLongBits(defaultDeliveryMinutes));
+        for (OrderStatus status : OrderStatus.values()) {
+            queueDepth.put(status, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Horário estimado para um pedido criado agora: espera pelos pedidos à frente na cozinha
+     * (em lotes do tamanho da capacidade paralela), o próprio preparo e, se for entrega, o trajeto.
+     */
+    public LocalDateTime estimateReadyAt(LocalDateTime now, DeliveryType deliveryType) {
+        int ahead = depth(OrderStatus.RECEIVED) + depth(OrderStatus.PREPARING);
+        int rounds = ahead / parallelSlots + 1;
+        double minutes = rounds * prepMinutes();
+        if (deliveryType != DeliveryType.PICKUP) {
+            minutes += deliveryMinutes();
+        }
+        return now.plusSeconds(Math.round(minutes * 60));
+    }
+
+    public int depth(OrderStatus status) {
+        return queueDepth.get(status).get();
+    }
+
+    public double prepMinutes() {
+        return Double.longBitsToDouble(prepMinutesBits.get());
+    }
+
+    public double deliveryMinutes() {
+        return Double.longBitsToDouble(deliveryMinutesBits.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadQueueDepth() {
+        List<OrderDtos.StatusCount> counts = orderRepository.countByStatusIn(
+                List.of(OrderStatus.RECEIVED, OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY));
+        counts.forEach(count -> queueDepth.get(count.status()).set((int) count.count()));
+        log.info("Carga inicial da cozinha: {}", counts);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderEvents.OrderCreated event) {
+        queueDepth.get(OrderStatus.RECEIVED).incrementAndGet();
+        stageEnteredAt.put(event.orderId(), toMillis(event.createdAt()));
+    }
+
+    @TransactionalEventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        decrementIfActive(event.previousStatus());
+        if (isActive(event.newStatus())) {
+            queueDepth.get(event.newStatus()).incrementAndGet();
+        }
+
+        long changedAt = toMillis(event.changedAt());
+        Long enteredAt = event.newStatus() == OrderStatus.COMPLETED || event.newStatus() == OrderStatus.CANCELLED
+                ? stageEnteredAt.remove(event.orderId())
+                : stageEnteredAt.put(event.orderId(), changedAt);
+
+        if (enteredAt == null || event.newStatus() == OrderStatus.CANCELLED) {
+            return;
+        }
+        double minutes = (changedAt - enteredAt) / 60_000.0;
+        if (event.previousStatus() == OrderStatus.PREPARING && event.newStatus() == OrderStatus.OUT_FOR_DELIVERY) {
+            record(prepMinutesBits, minutes);
+        } else if (event.previousStatus() == OrderStatus.PREPARING && event.newStatus() == OrderStatus.COMPLETED
+                && event.deliveryType() == DeliveryType.PICKUP) {
+            record(prepMinutesBits, minutes);
+        } else if (event.previousStatus() == OrderStatus.OUT_FOR_DELIVERY && event.newStatus() == OrderStatus.COMPLETED) {
+            record(deliveryMinutesBits, minutes);
+        }
+    }
+
+    /**
+     * Descarta os horários de entrada de etapa mais antigos que o limite de amostra: pedidos que nunca chegam a
+     * COMPLETED/CANCELLED (esquecidos no painel, removidos) deixariam a entrada no mapa para sempre, e uma
+     * amostra tão antiga seria descartada de qualquer forma.
+     */
+    @Scheduled(fixedDelayString = "${kitchen.sweep-ms:600000}")
+    public void evictStaleStages() {
+        long cutoff = System.currentTimeMillis() - MAX_SAMPLE_MINUTES * 60_000;
+        int before = stageEnteredAt.size();
+        stageEnteredAt.values().removeIf(enteredAt -> enteredAt < cutoff);
+        int removed = before - stageEnteredAt.size();
+        if (removed > 0) {
+            log.debug("Estimador da cozinha: {} etapas abandonadas descartadas", removed);
+        }
+    }
+
+    private void decrementIfActive(OrderStatus status) {
+        if (isActive(status)) {
+            queueDepth.get(status).updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    private static boolean isActive(OrderStatus status) {
+        return status == OrderStatus.RECEIVED || status == OrderStatus.PREPARING || status == OrderStatus.OUT_FOR_DELIVERY;
+    }
+
+    private static void record(AtomicLong averageBits, double sampleMinutes) {
+        if (sampleMinutes <= 0 || sampleMinutes > MAX_SAMPLE_MINUTES) {
+            return;
+        }
+        averageBits.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(current + SMOOTHING * (sampleMinutes - current));
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
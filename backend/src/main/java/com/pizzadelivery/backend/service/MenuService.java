@@ -3,7 +3,7 @@ package com.pizzadelivery.backend.service;
 import com.pizzadelivery.backend.dto.MenuDtos;
 import com.pizzadelivery.backend.entity.*;
 import com.pizzadelivery.backend.repository.*;
-import jakarta.transaction.Transactional;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -25,10 +25,15 @@ public class MenuService {
     private final FileStorageService fileStorageService;
 
 
+    @Transactional(readOnly = true)
     public List<PizzaType> getAllTypes() { return pizzaTypeRepo.findAll(); }
+    @Transactional(readOnly = true)
     public List<PizzaFlavor> getAllFlavors() { return pizzaFlavorRepo.findAll(); }
+    @Transactional(readOnly = true)
     public List<PizzaExtra> getAllExtras() { return pizzaExtraRepo.findAll(); }
+    @Transactional(readOnly = true)
     public List<PizzaCrust> getAllCrusts() { return pizzaCrustRepo.findAll(); }
+    @Transactional(readOnly = true)
     public List<Beverage> getAllBeverages() { return beverageRepo.findAll(); }
 
     @Transactional
@@ -90,14 +95,14 @@ public class MenuService {
         pizzaTypeRepo.deleteById(id);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PizzaExtra> getExtrasByTypeId(String typeId) {
         PizzaType type = pizzaTypeRepo.findById(typeId)
                 .orElseThrow(() -> new RuntimeException("Tipo de Pizza não encontrado com o id: " + typeId));
         return new ArrayList<>(type.getAvailableExtras());
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<PizzaCrust> getCrustsByTypeId(String typeId) {
         PizzaType type = pizzaTypeRepo.findById(typeId)
                 .orElseThrow(() -> new RuntimeException("Tipo de Pizza não encontrado com o id: " + typeId));
@@ -260,6 +265,7 @@ public class MenuService {
     }
 
     // --- MÉTODOS PARA CATEGORIAS DE BEBIDA (NOVO) ---
+    @Transactional(readOnly = true)
     public List<BeverageCategory> getAllBeverageCategories() {
         return beverageCategoryRepo.findAll();
     }
@@ -0,0 +1,121 @@
+package com.pizzadelivery.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzadelivery.backend.dto.OrderDtos;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de pedidos em CSV ou NDJSON. As linhas são lidas com cursor no servidor e escritas na resposta
+ * à medida que chegam, então o uso de memória não depende do tamanho do período.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String CSV_HEADER = "id,createdAt,status,deliveryType,paymentMethod,totalAmount,itemCount," +
+            "customerName,customerEmail,neighborhood,city,zipCode,courierName,dispatchedAt";
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${export.timeout:10m}") Duration timeout) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /** Prazo da requisição assíncrona de exportação; as demais rotas seguem o padrão do Spring MVC. */
+    public Duration timeout() {
+        return timeout;
+    }
+
+    // O período é inclusivo nas duas pontas (dias inteiros)
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<OrderDtos.ExportRow> rows = orderRepository.streamForExport(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<OrderDtos.ExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                OrderDtos.ExportRow row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+            }
+        }
+        // Fecha o gzip (escreve o trailer) sem fechar a resposta, que é do container
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        out.flush();
+    }
+
+    private static void writeCsv(Writer writer, OrderDtos.ExportRow row) throws IOException {
+        writer.write(csv(row.id()));
+        writer.write(',');
+        writer.write(csv(row.createdAt()));
+        writer.write(',');
+        writer.write(csv(row.status()));
+        writer.write(',');
+        writer.write(csv(row.deliveryType()));
+        writer.write(',');
+        writer.write(csv(row.paymentMethod()));
+        writer.write(',');
+        writer.write(Double.toString(row.totalAmount()));
+        writer.write(',');
+        writer.write(Integer.toString(row.itemCount()));
+        writer.write(',');
+        writer.write(csv(row.customerName()));
+        writer.write(',');
+        writer.write(csv(row.customerEmail()));
+        writer.write(',');
+        writer.write(csv(row.neighborhood()));
+        writer.write(',');
+        writer.write(csv(row.city()));
+        writer.write(',');
+        writer.write(csv(row.zipCode()));
+        writer.write(',');
+        writer.write(csv(row.courierName()));
+        writer.write(',');
+        writer.write(csv(row.dispatchedAt()));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,52 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderHourlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Mantém a tabela de totais por hora, de onde o OrderMetricsEngine é reconstruído na partida.
+ * Os ouvintes são síncronos e rodam dentro da transação do OrderService: se o pedido não for gravado,
+ * os totais também não são.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderRollupService {
+
+    private final OrderHourlyRollupRepository hourlyRollupRepository;
+
+    @EventListener
+    public void onOrderCreated(OrderEvents.OrderCreated event) {
+        long[] statusDeltas = new long[OrderStatus.values().length];
+        statusDeltas[OrderStatus.RECEIVED.ordinal()] = 1;
+        apply(event.createdAt(), 1, event.totalAmount(), statusDeltas);
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        long[] statusDeltas = new long[OrderStatus.values().length];
+        if (event.previousStatus() != null) {
+            statusDeltas[event.previousStatus().ordinal()] -= 1;
+        }
+        statusDeltas[event.newStatus().ordinal()] += 1;
+        apply(event.createdAt(), 0, 0, statusDeltas);
+    }
+
+    private void apply(LocalDateTime createdAt, long orders, double revenue, long[] statusDeltas) {
+        if (createdAt == null) {
+            return;
+        }
+        hourlyRollupRepository.addDeltas(createdAt.truncatedTo(ChronoUnit.HOURS), orders, revenue,
+                statusDeltas[OrderStatus.RECEIVED.ordinal()],
+                statusDeltas[OrderStatus.PREPARING.ordinal()],
+                statusDeltas[OrderStatus.OUT_FOR_DELIVERY.ordinal()],
+                statusDeltas[OrderStatus.COMPLETED.ordinal()],
+                statusDeltas[OrderStatus.CANCELLED.ordinal()]);
+    }
+}
@@ -8,15 +8,17 @@ import com.pizzadelivery.backend.entity.*;
 import com.pizzadelivery.backend.enums.DeliveryType;
 import com.pizzadelivery.backend.enums.OrderItemType;
 import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
 import com.pizzadelivery.backend.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,19 +33,23 @@ public class OrderService {
     private final CustomerUserRepository customerUserRepository;
     private final AddressRepository addressRepository;
     private final BeverageRepository beverageRepository; // NOVO
+    private final KitchenLoadEstimator kitchenLoadEstimator;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
+    // Acompanhamento do pedido: pode vir da réplica, exceto nas leituras com X-Read-Your-Writes (ver ReadYourWritesFilter)
+    @Transactional(readOnly = true)
     public Optional<Order> getOrderById(String id) {
         return orderRepository.findById(id);
     }
 
     @Transactional
-    public Order createOrder(OrderDtos.CreateOrderDto orderDto, String userEmail) {
-        CustomerUser customer = customerUserRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("Cliente com email " + userEmail + " não encontrado."));
+    public Order createOrder(OrderDtos.CreateOrderDto orderDto, String customerId) {
+        // O id vem do token (ou do cache de principais): só uma referência, sem consultar o cliente
+        CustomerUser customer = customerUserRepository.getReferenceById(customerId);
 
         List<OrderItem> orderItems = orderDto.items().stream().map(itemDto -> {
             if (itemDto.getItemType() == OrderItemType.PIZZA) {
@@ -54,6 +60,7 @@ public class OrderService {
             throw new IllegalArgumentException("Tipo de item de pedido desconhecido.");
         }).collect(Collectors.toList());
 
+        LocalDateTime now = LocalDateTime.now();
         Order order = Order.builder()
                 .items(orderItems)
                 .customerUser(customer)
@@ -61,17 +68,32 @@ public class OrderService {
                 .deliveryAddress(orderDto.deliveryAddress())
                 .payment(orderDto.payment())
                 .status(OrderStatus.RECEIVED)
-                .createdAt(LocalDateTime.now())
-                .estimatedDeliveryTime(LocalDateTime.now().plusMinutes(45))
+                .createdAt(now)
+                .estimatedDeliveryTime(kitchenLoadEstimator.estimateReadyAt(now, orderDto.deliveryType()))
                 .totalAmount(orderDto.totalAmount())
                 .observations(orderDto.observations())
+                .itemCount(orderItems.stream().mapToInt(OrderItem::getQuantity).sum())
                 .build();
 
         if (orderDto.deliveryType() == DeliveryType.DELIVERY && orderDto.deliveryAddress() != null) {
             saveAddressForCustomer(customer, orderDto.deliveryAddress());
         }
 
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+
+        // Os ids dos itens só existem após o persist; a fotografia é gravada no mesmo commit.
+        savedOrder.setLineSnapshots(savedOrder.getItems().stream()
+                .map(OrderLineSnapshot::of)
+                .collect(Collectors.toList()));
+
+        eventPublisher.publishEvent(new OrderEvents.OrderCreated(
+                savedOrder.getId(),
+                customer.getId(),
+                savedOrder.getDeliveryType(),
+                savedOrder.getCreatedAt(),
+                savedOrder.getTotalAmount()
+        ));
+        return savedOrder;
     }
 
     private OrderItem createPizzaOrderItem(PizzaCartItemRequestDto itemDto) {
@@ -131,32 +153,83 @@ public class OrderService {
     }
 
 
+    // Upsert indexado pela impressão digital do endereço: não carrega a coleção de endereços do cliente
     private void saveAddressForCustomer(CustomerUser customer, DeliveryAddress deliveryAddress) {
-        boolean addressExists = customer.getAddresses().stream().anyMatch(existingAddress ->
-                Objects.equals(existingAddress.getZipCode(), deliveryAddress.getZipCode()) &&
-                        Objects.equals(existingAddress.getStreet(), deliveryAddress.getStreet()) &&
-                        Objects.equals(existingAddress.getNumber(), deliveryAddress.getNumber())
-        );
-
-        if (!addressExists) {
-            Address newAddress = Address.builder()
-                    .street(deliveryAddress.getStreet())
-                    .number(deliveryAddress.getNumber())
-                    .complement(deliveryAddress.getComplement())
-                    .neighborhood(deliveryAddress.getNeighborhood())
-                    .city(deliveryAddress.getCity())
-                    .zipCode(deliveryAddress.getZipCode())
-                    .customer(customer)
-                    .build();
-            addressRepository.save(newAddress);
-        }
+        addressRepository.insertIfAbsent(
+                UUID.randomUUID().toString(),
+                deliveryAddress.getStreet(),
+                deliveryAddress.getNumber(),
+                deliveryAddress.getComplement(),
+                deliveryAddress.getNeighborhood(),
+                deliveryAddress.getCity(),
+                deliveryAddress.getZipCode(),
+                customer.getId(),
+                Address.fingerprintOf(deliveryAddress.getZipCode(), deliveryAddress.getStreet(), deliveryAddress.getNumber()));
     }
 
     @Transactional
     public Optional<Order> updateOrderStatus(String id, OrderStatus status) {
         return orderRepository.findById(id).map(order -> {
+            OrderStatus previousStatus = order.getStatus();
             order.setStatus(status);
-            return orderRepository.save(order);
+            // Voltou da rua sem ser concluído (entregador retornou, despacho errado): sai do lote antigo e
+            // pode ser proposto de novo pelo motor de despacho
+            if (previousStatus == OrderStatus.OUT_FOR_DELIVERY
+                    && status != OrderStatus.COMPLETED && status != OrderStatus.CANCELLED) {
+                order.setDispatchBatchId(null);
+                order.setCourierName(null);
+                order.setDispatchedAt(null);
+            }
+            Order savedOrder = orderRepository.save(order);
+
+            if (previousStatus != status) {
+                eventPublisher.publishEvent(new OrderEvents.OrderStatusChanged(
+                        savedOrder.getId(),
+                        savedOrder.getCustomerUser() != null ? savedOrder.getCustomerUser().getId() : null,
+                        savedOrder.getDeliveryType(),
+                        previousStatus,
+                        status,
+                        savedOrder.getCreatedAt(),
+                        savedOrder.getTotalAmount(),
+                        LocalDateTime.now()
+                ));
+            }
+            return savedOrder;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Marca todos os pedidos do lote como OUT_FOR_DELIVERY com o mesmo entregador, ou nenhum deles.
+     * Falha se algum pedido não estiver mais em preparo (ex.: cancelado ou despachado manualmente).
+     */
+    @Transactional
+    public List<Order> dispatchOrders(List<String> orderIds, String batchId, String courierName, LocalDateTime dispatchedAt) {
+        List<Order> orders = orderRepository.findAllByIdForUpdate(orderIds);
+        if (orders.size() != orderIds.size()) {
+            throw new IllegalStateException("Um ou mais pedidos do lote não existem mais.");
+        }
+        for (Order order : orders) {
+            if (order.getStatus() != OrderStatus.PREPARING || order.getDeliveryType() != DeliveryType.DELIVERY) {
+                throw new IllegalStateException("O pedido " + order.getId() + " não está mais aguardando despacho.");
+            }
+        }
+
+        for (Order order : orders) {
+            order.setStatus(OrderStatus.OUT_FOR_DELIVERY);
+            order.setCourierName(courierName);
+            order.setDispatchBatchId(batchId);
+            order.setDispatchedAt(dispatchedAt);
+            eventPublisher.publishEvent(new OrderEvents.OrderStatusChanged(
+                    order.getId(),
+                    order.getCustomerUser() != null ? order.getCustomerUser().getId() : null,
+                    order.getDeliveryType(),
+                    OrderStatus.PREPARING,
+                    OrderStatus.OUT_FOR_DELIVERY,
+                    order.getCreatedAt(),
+                    order.getTotalAmount(),
+                    dispatchedAt
+            ));
+        }
+        return orderRepository.saveAll(orders);
+    }
+}
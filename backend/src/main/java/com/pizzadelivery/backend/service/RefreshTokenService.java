@@ -0,0 +1,169 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.AuthDtos;
+import com.pizzadelivery.backend.entity.RefreshToken;
+import com.pizzadelivery.backend.repository.RefreshTokenRepository;
+import com.pizzadelivery.backend.security.JwtTokenProvider;
+import com.pizzadelivery.backend.security.OpaqueTokens;
+import com.pizzadelivery.backend.security.PrincipalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sessões renováveis. O login com senha entrega um JWT curto e um token de renovação; a renovação troca esse
+ * token por um par novo sem passar pelo AuthenticationManager, então o BCrypt só roda em logins de verdade.
+ *
+ * O prazo é deslizante ({@code idleTtl} desde o último uso) e limitado por {@code maxTtl} desde o login.
+ *
+ * Duas abas com a mesma sessão podem trocar o mesmo token quase juntas. Por isso, até {@code reuseGrace} depois
+ * da troca, o token anterior ainda rende um par novo da mesma família, desde que a sessão não tenha sido
+ * encerrada; só depois disso o reuso é tratado como vazamento.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final PrincipalCache principalCache;
+    private final Duration idleTtl;
+    private final Duration maxTtl;
+    private final Duration reuseGrace;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtTokenProvider jwtTokenProvider,
+                               PrincipalCache principalCache,
+                               @Value("${jwt.refresh.idle-ttl:14d}") Duration idleTtl,
+                               @Value("${jwt.refresh.max-ttl:60d}") Duration maxTtl,
+                               @Value("${jwt.refresh.reuse-grace:30s}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.principalCache = principalCache;
+        this.idleTtl = idleTtl;
+        this.maxTtl = maxTtl;
+        this.reuseGrace = reuseGrace;
+    }
+
+    /** Abre uma família nova para um login que acabou de ser autenticado; devolve o token em claro. */
+    @Transactional
+    public String issue(Authentication authentication) {
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Autenticação sem perfil."));
+        LocalDateTime now = LocalDateTime.now();
+        String token = OpaqueTokens.newToken();
+        store(token, UUID.randomUUID().toString(), authentication.getName(), role, now, now.plus(maxTtl));
+        return token;
+    }
+
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthDtos.TokenResponse refresh(String token) {
+        RefreshToken current = find(token);
+        LocalDateTime now = LocalDateTime.now();
+
+        String next = OpaqueTokens.newToken();
+        if (current.getRevokedAt() != null) {
+            if (current.getReplacedByHash() == null) {
+                throw new BadCredentialsException("Sessão encerrada.");
+            }
+            if (!isWithinReuseGrace(current, now)) {
+                // Token já trocado usado de novo: alguém tem uma cópia. Encerra a sessão inteira.
+                int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+                log.warn("Reuso de token de renovação de {}; {} tokens da sessão revogados", current.getSubject(), revoked);
+                throw new BadCredentialsException("Sessão encerrada.");
+            }
+            // Troca concorrente (outra aba): o sucessor já entregue continua válido e este pedido ganha outro
+        } else {
+            if (!current.getExpiresAt().isAfter(now)) {
+                throw new BadCredentialsException("Sessão expirada.");
+            }
+            current.setRevokedAt(now);
+            current.setReplacedByHash(OpaqueTokens.hash(next));
+            refreshTokenRepository.save(current);
+        }
+        store(next, current.getFamilyId(), current.getSubject(), current.getRole(), now, current.getFamilyExpiresAt());
+
+        // Clientes levam o id no token; um cliente removido não renova mais
+        String customerId = null;
+        if (PrincipalCache.CUSTOMER_ROLE.equals(current.getRole())) {
+            customerId = principalCache.findCustomer(current.getSubject())
+                    .map(PrincipalCache.CustomerPrincipal::customerId)
+                    .orElseThrow(() -> new BadCredentialsException("Sessão encerrada."));
+        }
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(current.getSubject(), null,
+                List.of(new SimpleGrantedAuthority(current.getRole())));
+        return new AuthDtos.TokenResponse(jwtTokenProvider.createToken(authentication, customerId), next);
+    }
+
+    /** Logout: revoga a família do token apresentado. Tokens desconhecidos são ignorados. */
+    @Transactional
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findById(OpaqueTokens.hash(token))
+                .ifPresent(current -> refreshTokenRepository.revokeFamily(current.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /** Encerra todas as sessões de um usuário (troca de senha, e-mail alterado, conta removida). */
+    @Transactional
+    public void revokeAll(String subject) {
+        if (subject != null) {
+            refreshTokenRepository.revokeBySubject(subject, LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 20 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Tokens de renovação expirados removidos: {}", purged);
+        }
+    }
+
+    // Trocado há pouco, sessão ainda ativa (sem logout nem revogação) e dentro do prazo máximo
+    private boolean isWithinReuseGrace(RefreshToken current, LocalDateTime now) {
+        return !now.isAfter(current.getRevokedAt().plus(reuseGrace))
+                && current.getFamilyExpiresAt().isAfter(now)
+                && refreshTokenRepository.existsByFamilyIdAndRevokedAtIsNull(current.getFamilyId());
+    }
+
+    private RefreshToken find(String token) {
+        if (token == null || token.isBlank()) {
+            throw new BadCredentialsException("Token de renovação inválido.");
+        }
+        return refreshTokenRepository.lockByTokenHash(OpaqueTokens.hash(token))
+                .orElseThrow(() -> new BadCredentialsException("Token de renovação inválido."));
+    }
+
+    private void store(String token, String familyId, String subject, String role, LocalDateTime now,
+                       LocalDateTime familyExpiresAt) {
+        LocalDateTime idleExpiry = now.plus(idleTtl);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(OpaqueTokens.hash(token))
+                .familyId(familyId)
+                .subject(subject)
+                .role(role)
+                .createdAt(now)
+                .expiresAt(idleExpiry.isBefore(familyExpiresAt) ? idleExpiry : familyExpiresAt)
+                .familyExpiresAt(familyExpiresAt)
+                .build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.AnalyticsDtos;
+import com.pizzadelivery.backend.dto.MenuAnalyticsDtos;
+import com.pizzadelivery.backend.metrics.MenuAnalyticsEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consultas de vendas por período e dimensões arbitrárias, respondidas a partir de sales_facts.
+ * Só dimensões da lista abaixo podem ser usadas; os nomes viram expressões SQL fixas, nunca texto do usuário.
+ * Os indicadores do cardápio vêm do MenuAnalyticsEngine, em memória.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsService {
+
+    private static final Map<String, String> DIMENSIONS = Map.of(
+            "day", "day",
+            "week", "CAST(date_trunc('week', day) AS DATE)",
+            "month", "CAST(date_trunc('month', day) AS DATE)",
+            "itemType", "item_type",
+            "pizzaType", "pizza_type",
+            "flavor", "flavor",
+            "channel", "channel",
+            "paymentMethod", "payment_method"
+    );
+
+    private final MenuAnalyticsEngine menuAnalyticsEngine;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public List<AnalyticsDtos.SalesRow> getSales(LocalDate from, LocalDate to, List<String> groupBy) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Período inválido.");
+        }
+        Set<String> dimensions = new LinkedHashSet<>(groupBy == null ? List.of() : groupBy);
+        List<String> expressions = new ArrayList<>();
+        for (String dimension : dimensions) {
+            String expression = DIMENSIONS.get(dimension);
+            if (expression == null) {
+                throw new IllegalArgumentException("Dimensão desconhecida: " + dimension);
+            }
+            expressions.add(expression);
+        }
+
+        String select = expressions.isEmpty() ? "" : String.join(", ", expressions) + ", ";
+        String grouping = expressions.isEmpty() ? "" : " GROUP BY " + String.join(", ", expressions)
+                + " ORDER BY " + String.join(", ", expressions);
+        String sql = "SELECT " + select + "COALESCE(SUM(quantity), 0), COALESCE(SUM(revenue), 0) " +
+                "FROM sales_facts WHERE day BETWEEN :from AND :to" + grouping;
+
+        @SuppressWarnings("unchecked")
+        List<Object> rows = entityManager.createNativeQuery(sql)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        List<AnalyticsDtos.SalesRow> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            Map<String, Object> values = new LinkedHashMap<>();
+            int index = 0;
+            for (String dimension : dimensions) {
+                Object value = columns[index++];
+                values.put(dimension, value instanceof Date date ? date.toLocalDate() : value);
+            }
+            result.add(new AnalyticsDtos.SalesRow(values,
+                    ((Number) columns[index]).doubleValue(),
+                    ((Number) columns[index + 1]).doubleValue()));
+        }
+        return result;
+    }
+
+    public List<MenuAnalyticsDtos.FlavorPopularity> getFlavorPopularity(int days) {
+        return menuAnalyticsEngine.flavorPopularity(days);
+    }
+
+    public List<MenuAnalyticsDtos.ExtrasAttachRate> getExtrasAttachRate(int days) {
+        return menuAnalyticsEngine.extrasAttachRate(days);
+    }
+
+    public List<MenuAnalyticsDtos.CrustTakeRate> getCrustTakeRate(int days) {
+        return menuAnalyticsEngine.crustTakeRate(days);
+    }
+
+    public MenuAnalyticsDtos.OrderHeatmap getOrderHeatmap(int days) {
+        return menuAnalyticsEngine.orderHeatmap(days);
+    }
+}
@@ -0,0 +1,98 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.entity.Order;
+import com.pizzadelivery.backend.entity.OrderLineSnapshot;
+import com.pizzadelivery.backend.enums.OrderItemType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import com.pizzadelivery.backend.repository.SalesFactRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela sales_facts. Como o OrderRollupService, os ouvintes são síncronos e rodam dentro da
+ * transação do pedido. Pedidos cancelados saem do fato e voltam a entrar se o cancelamento for desfeito.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesFactService {
+
+    private final OrderRepository orderRepository;
+    private final SalesFactRepository salesFactRepository;
+
+    @EventListener
+    public void onOrderCreated(OrderEvents.OrderCreated event) {
+        // O pedido acabou de ser gravado nesta transação, então vem do contexto de persistência
+        orderRepository.findById(event.orderId()).ifPresent(order -> apply(order, 1));
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderEvents.OrderStatusChanged event) {
+        boolean wasCancelled = event.previousStatus() == OrderStatus.CANCELLED;
+        boolean isCancelled = event.newStatus() == OrderStatus.CANCELLED;
+        if (wasCancelled != isCancelled) {
+            orderRepository.findById(event.orderId()).ifPresent(order -> apply(order, isCancelled ? -1 : 1));
+        }
+    }
+
+    private void apply(Order order, int sign) {
+        if (order.getCreatedAt() == null) {
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        String channel = order.getDeliveryType() != null ? order.getDeliveryType().name() : "";
+        String paymentMethod = order.getPayment() != null && order.getPayment().getMethod() != null
+                ? order.getPayment().getMethod().name() : "";
+
+        // Agrupa primeiro em memória: vários itens do mesmo pedido costumam cair na mesma célula
+        Map<List<String>, double[]> cells = new LinkedHashMap<>();
+        for (OrderLineSnapshot line : linesOf(order)) {
+            String itemType = line.getItemType() != null ? line.getItemType().name() : "";
+            if (line.getItemType() == OrderItemType.BEVERAGE) {
+                String beverage = line.getBeverage() != null ? nameOrEmpty(line.getBeverage().getName()) : "";
+                accumulate(cells, List.of(itemType, "", beverage), line.getQuantity(), line.getTotalPrice());
+                continue;
+            }
+            String pizzaType = line.getPizzaType() != null ? nameOrEmpty(line.getPizzaType().getName()) : "";
+            List<OrderLineSnapshot.CatalogRef> flavors = line.getFlavors() == null ? List.of() : line.getFlavors();
+            if (flavors.isEmpty()) {
+                accumulate(cells, List.of(itemType, pizzaType, ""), line.getQuantity(), line.getTotalPrice());
+                continue;
+            }
+            double share = 1.0 / flavors.size();
+            for (OrderLineSnapshot.CatalogRef flavor : flavors) {
+                accumulate(cells, List.of(itemType, pizzaType, nameOrEmpty(flavor.getName())),
+                        line.getQuantity() * share, line.getTotalPrice() * share);
+            }
+        }
+
+        cells.forEach((cell, totals) -> salesFactRepository.addDeltas(day, cell.get(0), cell.get(1), cell.get(2),
+                channel, paymentMethod, sign * totals[0], sign * totals[1]));
+    }
+
+    private static List<OrderLineSnapshot> linesOf(Order order) {
+        if (order.getLineSnapshots() != null) {
+            return order.getLineSnapshots();
+        }
+        return order.getItems() == null ? List.of()
+                : order.getItems().stream().map(OrderLineSnapshot::of).collect(Collectors.toList());
+    }
+
+    private static void accumulate(Map<List<String>, double[]> cells, List<String> cell, double quantity, double revenue) {
+        double[] totals = cells.computeIfAbsent(cell, k -> new double[2]);
+        totals[0] += quantity;
+        totals[1] += revenue;
+    }
+
+    private static String nameOrEmpty(String name) {
+        return name == null ? "" : name;
+    }
+}
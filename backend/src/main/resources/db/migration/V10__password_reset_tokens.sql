@@ -0,0 +1,24 @@
+-- Tokens de redefinição de senha em tabela própria, guardados como hash SHA-256 (ver PasswordResetToken).
+
+CREATE TABLE password_reset_tokens (
+    token_hash       VARCHAR(64) NOT NULL,
+    customer_user_id VARCHAR(255) NOT NULL,
+    created_at       TIMESTAMP(6),
+    expires_at       TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_password_reset_tokens PRIMARY KEY (token_hash),
+    CONSTRAINT fk_password_reset_tokens_customer FOREIGN KEY (customer_user_id) REFERENCES customer_users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_password_reset_tokens_expires_at ON password_reset_tokens (expires_at);
+CREATE INDEX idx_password_reset_tokens_customer ON password_reset_tokens (customer_user_id);
+
+-- Tokens ainda válidos continuam funcionando
+INSERT INTO password_reset_tokens (token_hash, customer_user_id, created_at, expires_at)
+SELECT encode(sha256(convert_to(password_reset_token, 'UTF8')), 'hex'), id, now(), password_reset_token_expiry
+FROM customer_users
+WHERE password_reset_token IS NOT NULL
+  AND password_reset_token_expiry > now();
+
+DROP INDEX IF EXISTS idx_customer_users_password_reset_token;
+ALTER TABLE customer_users DROP COLUMN password_reset_token;
+ALTER TABLE customer_users DROP COLUMN password_reset_token_expiry;
@@ -0,0 +1,21 @@
+-- Colunas normalizadas para a busca de clientes do admin (ver CustomerUser.updateSearchColumns).
+-- O Java remove qualquer acento (NFD); aqui o translate cobre os acentos usados em português.
+
+ALTER TABLE customer_users ADD COLUMN search_name VARCHAR(255);
+ALTER TABLE customer_users ADD COLUMN search_email VARCHAR(255);
+ALTER TABLE customer_users ADD COLUMN search_whatsapp VARCHAR(255);
+ALTER TABLE customer_users ADD COLUMN search_cpf VARCHAR(255);
+
+UPDATE customer_users SET
+    search_name = regexp_replace(btrim(translate(lower(name),
+                      'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ',
+                      'aaaaaaeeeeiiiiooooouuuucnyy')), '\s+', ' ', 'g'),
+    search_email = lower(btrim(email)),
+    search_whatsapp = NULLIF(regexp_replace(whatsapp, '\D', '', 'g'), ''),
+    search_cpf = NULLIF(regexp_replace(cpf, '\D', '', 'g'), '');
+
+-- text_pattern_ops permite usar o índice em LIKE 'prefixo%' independentemente da collation
+CREATE INDEX idx_customer_users_search_name ON customer_users (search_name text_pattern_ops);
+CREATE INDEX idx_customer_users_search_email ON customer_users (search_email text_pattern_ops);
+CREATE INDEX idx_customer_users_search_whatsapp ON customer_users (search_whatsapp text_pattern_ops);
+CREATE INDEX idx_customer_users_search_cpf ON customer_users (search_cpf text_pattern_ops);
@@ -0,0 +1,21 @@
+-- Impressão digital do endereço (ver Address.fingerprintOf): CEP só com dígitos | rua | número,
+-- minúsculos e sem acentos. Única por cliente, permite gravar o endereço do checkout com ON CONFLICT.
+
+ALTER TABLE addresses ADD COLUMN fingerprint VARCHAR(1024);
+
+UPDATE addresses SET fingerprint =
+    COALESCE(NULLIF(regexp_replace(zip_code, '\D', '', 'g'), ''), '') || '|' ||
+    COALESCE(regexp_replace(btrim(translate(lower(street),
+        'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ', 'aaaaaaeeeeiiiiooooouuuucnyy')), '\s+', ' ', 'g'), '') || '|' ||
+    COALESCE(regexp_replace(btrim(translate(lower(number),
+        'áàâãäåéèêëíìîïóòôõöúùûüçñýÿ', 'aaaaaaeeeeiiiiooooouuuucnyy')), '\s+', ' ', 'g'), '');
+
+-- Remove duplicatas já existentes, mantendo um endereço por cliente e impressão digital
+DELETE FROM addresses a
+USING addresses b
+WHERE a.customer_user_id = b.customer_user_id
+  AND a.fingerprint = b.fingerprint
+  AND a.id > b.id;
+
+ALTER TABLE addresses ALTER COLUMN fingerprint SET NOT NULL;
+CREATE UNIQUE INDEX uk_addresses_customer_fingerprint ON addresses (customer_user_id, fingerprint);
@@ -0,0 +1,19 @@
+-- Fila de saída de e-mails (ver EmailOutboxMessage), despachada pelo EmailOutboxDispatcher.
+
+CREATE TABLE email_outbox (
+    id              VARCHAR(255) NOT NULL,
+    recipient       VARCHAR(255),
+    subject         VARCHAR(255),
+    body            TEXT,
+    status          VARCHAR(255),
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6),
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(1000),
+    CONSTRAINT pk_email_outbox PRIMARY KEY (id)
+);
+
+-- Só as mensagens ainda por enviar interessam ao despachante
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX idx_email_outbox_sent_at ON email_outbox (sent_at) WHERE status = 'SENT';
@@ -0,0 +1,18 @@
+-- Avisos ao cliente que não foram entregues (ver NotificationDeadLetter).
+
+CREATE TABLE notification_dead_letters (
+    id          VARCHAR(255) NOT NULL,
+    channel     VARCHAR(255),
+    order_id    VARCHAR(255),
+    customer_id VARCHAR(255),
+    recipient   VARCHAR(255),
+    status      VARCHAR(255),
+    message     TEXT,
+    attempts    INTEGER NOT NULL DEFAULT 0,
+    last_error  VARCHAR(1000),
+    created_at  TIMESTAMP(6),
+    failed_at   TIMESTAMP(6),
+    CONSTRAINT pk_notification_dead_letters PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_notification_dead_letters_failed_at ON notification_dead_letters (failed_at);
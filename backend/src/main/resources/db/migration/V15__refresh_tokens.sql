@@ -0,0 +1,18 @@
+-- Tokens de renovação de sessão, guardados como hash SHA-256 (ver RefreshToken).
+
+CREATE TABLE refresh_tokens (
+    token_hash        VARCHAR(64) NOT NULL,
+    family_id         VARCHAR(255) NOT NULL,
+    subject           VARCHAR(255) NOT NULL,
+    role              VARCHAR(255) NOT NULL,
+    created_at        TIMESTAMP(6),
+    expires_at        TIMESTAMP(6) NOT NULL,
+    family_expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at        TIMESTAMP(6),
+    replaced_by_hash  VARCHAR(64),
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (token_hash)
+);
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_subject ON refresh_tokens (subject);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
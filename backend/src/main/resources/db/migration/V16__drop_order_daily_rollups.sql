@@ -0,0 +1,4 @@
+-- Os totais diários não têm mais leitor (o painel lê do OrderMetricsEngine, reconstruído a partir dos totais
+-- por hora), e a linha do dia era um ponto de bloqueio para todos os checkouts do mesmo dia.
+
+DROP TABLE order_daily_rollups;
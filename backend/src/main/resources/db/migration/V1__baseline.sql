@@ -0,0 +1,174 @@
+-- Esquema existente até aqui, antes gerenciado por spring.jpa.hibernate.ddl-auto=update.
+-- Bancos já existentes são marcados nesta versão via spring.flyway.baseline-on-migrate.
+
+CREATE TABLE admins (
+    id       VARCHAR(255) NOT NULL,
+    name     VARCHAR(255),
+    username VARCHAR(255),
+    password VARCHAR(255),
+    CONSTRAINT pk_admins PRIMARY KEY (id),
+    CONSTRAINT uk_admins_username UNIQUE (username)
+);
+
+CREATE TABLE customer_users (
+    id                           VARCHAR(255) NOT NULL,
+    name                         VARCHAR(255),
+    email                        VARCHAR(255) NOT NULL,
+    password                     VARCHAR(255),
+    whatsapp                     VARCHAR(255),
+    cpf                          VARCHAR(255),
+    google_id                    VARCHAR(255),
+    picture_url                  VARCHAR(255),
+    email_verified               BOOLEAN,
+    locale                       VARCHAR(255),
+    last_login                   TIMESTAMP(6),
+    created_at                   TIMESTAMP(6),
+    password_reset_token         VARCHAR(255),
+    password_reset_token_expiry  TIMESTAMP(6),
+    CONSTRAINT pk_customer_users PRIMARY KEY (id),
+    CONSTRAINT uk_customer_users_email UNIQUE (email),
+    CONSTRAINT uk_customer_users_google_id UNIQUE (google_id)
+);
+
+CREATE TABLE addresses (
+    id               VARCHAR(255) NOT NULL,
+    street           VARCHAR(255),
+    number           VARCHAR(255),
+    complement       VARCHAR(255),
+    neighborhood     VARCHAR(255),
+    city             VARCHAR(255),
+    zip_code         VARCHAR(255),
+    customer_user_id VARCHAR(255),
+    CONSTRAINT pk_addresses PRIMARY KEY (id),
+    CONSTRAINT fk_addresses_customer FOREIGN KEY (customer_user_id) REFERENCES customer_users (id)
+);
+
+CREATE TABLE pizza_type (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    base_price  FLOAT(53) NOT NULL,
+    image_url   VARCHAR(255),
+    CONSTRAINT pk_pizza_type PRIMARY KEY (id)
+);
+
+CREATE TABLE pizza_flavor (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    price       FLOAT(53) NOT NULL,
+    image_url   VARCHAR(255),
+    CONSTRAINT pk_pizza_flavor PRIMARY KEY (id)
+);
+
+CREATE TABLE pizza_extra (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    price       FLOAT(53) NOT NULL,
+    CONSTRAINT pk_pizza_extra PRIMARY KEY (id)
+);
+
+CREATE TABLE pizza_crust (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    price       FLOAT(53) NOT NULL,
+    CONSTRAINT pk_pizza_crust PRIMARY KEY (id)
+);
+
+CREATE TABLE flavor_pizzatypes (
+    flavor_id    VARCHAR(255) NOT NULL,
+    pizzatype_id VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_flavor_pizzatypes_flavor FOREIGN KEY (flavor_id) REFERENCES pizza_flavor (id),
+    CONSTRAINT fk_flavor_pizzatypes_type FOREIGN KEY (pizzatype_id) REFERENCES pizza_type (id)
+);
+
+CREATE TABLE pizza_type_extras (
+    pizza_type_id  VARCHAR(255) NOT NULL,
+    pizza_extra_id VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_pizza_type_extras_type FOREIGN KEY (pizza_type_id) REFERENCES pizza_type (id),
+    CONSTRAINT fk_pizza_type_extras_extra FOREIGN KEY (pizza_extra_id) REFERENCES pizza_extra (id)
+);
+
+CREATE TABLE pizza_type_crusts (
+    pizza_type_id  VARCHAR(255) NOT NULL,
+    pizza_crust_id VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_pizza_type_crusts_type FOREIGN KEY (pizza_type_id) REFERENCES pizza_type (id),
+    CONSTRAINT fk_pizza_type_crusts_crust FOREIGN KEY (pizza_crust_id) REFERENCES pizza_crust (id)
+);
+
+CREATE TABLE beverage_category (
+    id   VARCHAR(255) NOT NULL,
+    name VARCHAR(255),
+    CONSTRAINT pk_beverage_category PRIMARY KEY (id)
+);
+
+CREATE TABLE beverage (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    price       FLOAT(53) NOT NULL,
+    image_url   VARCHAR(255),
+    alcoholic   BOOLEAN DEFAULT FALSE NOT NULL,
+    category_id VARCHAR(255),
+    CONSTRAINT pk_beverage PRIMARY KEY (id),
+    CONSTRAINT fk_beverage_category FOREIGN KEY (category_id) REFERENCES beverage_category (id)
+);
+
+CREATE TABLE orders (
+    id                      VARCHAR(255) NOT NULL,
+    customer_user_id        VARCHAR(255),
+    delivery_type           VARCHAR(255),
+    street                  VARCHAR(255),
+    number                  VARCHAR(255),
+    complement              VARCHAR(255),
+    neighborhood            VARCHAR(255),
+    city                    VARCHAR(255),
+    zip_code                VARCHAR(255),
+    method                  VARCHAR(255),
+    card_brand              VARCHAR(255),
+    card_type               VARCHAR(255),
+    status                  VARCHAR(255),
+    created_at              TIMESTAMP(6),
+    estimated_delivery_time TIMESTAMP(6),
+    total_amount            FLOAT(53) NOT NULL,
+    observations            VARCHAR(255),
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_customer FOREIGN KEY (customer_user_id) REFERENCES customer_users (id)
+);
+
+CREATE TABLE order_item (
+    id            VARCHAR(255) NOT NULL,
+    item_type     VARCHAR(255),
+    pizza_type_id VARCHAR(255),
+    crust_id      VARCHAR(255),
+    beverage_id   VARCHAR(255),
+    observations  VARCHAR(255),
+    quantity      INTEGER NOT NULL,
+    total_price   FLOAT(53) NOT NULL,
+    order_id      VARCHAR(255),
+    CONSTRAINT pk_order_item PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_pizza_type FOREIGN KEY (pizza_type_id) REFERENCES pizza_type (id),
+    CONSTRAINT fk_order_item_crust FOREIGN KEY (crust_id) REFERENCES pizza_crust (id),
+    CONSTRAINT fk_order_item_beverage FOREIGN KEY (beverage_id) REFERENCES beverage (id)
+);
+
+CREATE TABLE order_item_flavors (
+    order_item_id VARCHAR(255) NOT NULL,
+    flavor_id     VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_order_item_flavors_item FOREIGN KEY (order_item_id) REFERENCES order_item (id),
+    CONSTRAINT fk_order_item_flavors_flavor FOREIGN KEY (flavor_id) REFERENCES pizza_flavor (id)
+);
+
+CREATE TABLE order_item_extra (
+    id                VARCHAR(255) NOT NULL,
+    order_item_id     VARCHAR(255),
+    extra_id          VARCHAR(255),
+    applied_flavor_id VARCHAR(255),
+    CONSTRAINT pk_order_item_extra PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_extra_item FOREIGN KEY (order_item_id) REFERENCES order_item (id),
+    CONSTRAINT fk_order_item_extra_extra FOREIGN KEY (extra_id) REFERENCES pizza_extra (id),
+    CONSTRAINT fk_order_item_extra_flavor FOREIGN KEY (applied_flavor_id) REFERENCES pizza_flavor (id)
+);
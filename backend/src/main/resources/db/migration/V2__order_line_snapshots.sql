@@ -0,0 +1,3 @@
+-- Fotografia dos itens do pedido (ver OrderLineSnapshot). IF NOT EXISTS porque
+-- bancos que rodaram com ddl-auto=update já podem ter a coluna.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS line_snapshots JSONB;
@@ -0,0 +1,19 @@
+-- Índices alinhados às consultas reais do OrderRepository e do fluxo de redefinição de senha.
+
+-- countByCreatedAtBetween / findByCreatedAtBetween / findRevenuePerDaySince
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+
+-- findByCustomerUser_IdOrderByCreatedAtDesc: filtra pelo cliente e já devolve na ordem do índice
+CREATE INDEX IF NOT EXISTS idx_orders_customer_created_at ON orders (customer_user_id, created_at DESC);
+
+-- Filtros por status (pedidos pendentes no dashboard, fila da cozinha)
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at ON orders (status, created_at);
+
+-- completePasswordReset
+CREATE INDEX IF NOT EXISTS idx_customer_users_password_reset_token ON customer_users (password_reset_token);
+
+-- Chaves estrangeiras percorridas ao carregar pedidos e endereços
+CREATE INDEX IF NOT EXISTS idx_order_item_order_id ON order_item (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_flavors_item ON order_item_flavors (order_item_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_extra_item ON order_item_extra (order_item_id);
+CREATE INDEX IF NOT EXISTS idx_addresses_customer ON addresses (customer_user_id);
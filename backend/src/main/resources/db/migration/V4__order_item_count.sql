@@ -0,0 +1,5 @@
+-- Quantidade de itens do pedido, usada pelo histórico resumido do cliente sem carregar os itens.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET item_count = COALESCE((SELECT SUM(i.quantity) FROM order_item i WHERE i.order_id = o.id), 0);
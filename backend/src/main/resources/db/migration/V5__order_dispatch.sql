@@ -0,0 +1,6 @@
+-- Despacho em lotes: entregador, lote e horário de saída de cada pedido.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS courier_name VARCHAR(255);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS dispatch_batch_id VARCHAR(255);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS dispatched_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_orders_dispatch_batch ON orders (dispatch_batch_id);
@@ -0,0 +1,37 @@
+-- Fato de vendas pré-agregado (ver SalesFact), mantido pelo SalesFactService.
+
+CREATE TABLE sales_facts (
+    day            DATE NOT NULL,
+    item_type      VARCHAR(32) NOT NULL,
+    pizza_type     VARCHAR(255) NOT NULL,
+    flavor         VARCHAR(255) NOT NULL,
+    channel        VARCHAR(32) NOT NULL,
+    payment_method VARCHAR(32) NOT NULL,
+    quantity       FLOAT(53) NOT NULL DEFAULT 0,
+    revenue        FLOAT(53) NOT NULL DEFAULT 0,
+    CONSTRAINT pk_sales_facts PRIMARY KEY (day, item_type, pizza_type, flavor, channel, payment_method)
+);
+
+-- Carga inicial a partir dos itens dos pedidos não cancelados. Pizzas de vários sabores são
+-- divididas igualmente entre os sabores, como faz o serviço.
+INSERT INTO sales_facts (day, item_type, pizza_type, flavor, channel, payment_method, quantity, revenue)
+SELECT CAST(o.created_at AS DATE),
+       COALESCE(i.item_type, ''),
+       CASE WHEN i.item_type = 'BEVERAGE' THEN '' ELSE COALESCE(pt.name, '') END,
+       CASE WHEN i.item_type = 'BEVERAGE' THEN COALESCE(b.name, '') ELSE COALESCE(pf.name, '') END,
+       COALESCE(o.delivery_type, ''),
+       COALESCE(o.method, ''),
+       SUM(i.quantity / CAST(COALESCE(fc.flavor_count, 1) AS FLOAT(53))),
+       SUM(i.total_price / COALESCE(fc.flavor_count, 1))
+FROM order_item i
+JOIN orders o ON o.id = i.order_id
+LEFT JOIN pizza_type pt ON pt.id = i.pizza_type_id
+LEFT JOIN beverage b ON b.id = i.beverage_id
+LEFT JOIN order_item_flavors oif ON oif.order_item_id = i.id
+LEFT JOIN pizza_flavor pf ON pf.id = oif.flavor_id
+LEFT JOIN (SELECT order_item_id, COUNT(*) AS flavor_count
+           FROM order_item_flavors
+           GROUP BY order_item_id) fc ON fc.order_item_id = i.id
+WHERE o.created_at IS NOT NULL
+  AND (o.status IS NULL OR o.status <> 'CANCELLED')
+GROUP BY 1, 2, 3, 4, 5, 6;
@@ -0,0 +1,18 @@
+-- Fechamento diário (ver DailyCloseReport), gerado pelo DailyCloseService.
+
+CREATE TABLE daily_close_reports (
+    day                       DATE NOT NULL,
+    generated_at              TIMESTAMP(6),
+    order_count               BIGINT NOT NULL DEFAULT 0,
+    revenue                   FLOAT(53) NOT NULL DEFAULT 0,
+    average_ticket            FLOAT(53) NOT NULL DEFAULT 0,
+    delivery_count            BIGINT NOT NULL DEFAULT 0,
+    delivery_revenue          FLOAT(53) NOT NULL DEFAULT 0,
+    pickup_count              BIGINT NOT NULL DEFAULT 0,
+    pickup_revenue            FLOAT(53) NOT NULL DEFAULT 0,
+    cancelled_count           BIGINT NOT NULL DEFAULT 0,
+    cancelled_amount          FLOAT(53) NOT NULL DEFAULT 0,
+    revenue_by_payment_method JSONB,
+    revenue_by_card_brand     JSONB,
+    CONSTRAINT pk_daily_close_reports PRIMARY KEY (day)
+);
@@ -0,0 +1,22 @@
+-- Totais de pedidos por cliente (ver CustomerStats), mantidos pelo CustomerStatsService.
+
+CREATE TABLE customer_stats (
+    customer_user_id VARCHAR(255) NOT NULL,
+    total_orders     BIGINT NOT NULL DEFAULT 0,
+    total_spent      FLOAT(53) NOT NULL DEFAULT 0,
+    first_order_at   TIMESTAMP(6),
+    last_order_at    TIMESTAMP(6),
+    CONSTRAINT pk_customer_stats PRIMARY KEY (customer_user_id),
+    CONSTRAINT fk_customer_stats_customer FOREIGN KEY (customer_user_id) REFERENCES customer_users (id) ON DELETE CASCADE
+);
+
+-- Carga inicial a partir dos pedidos existentes
+INSERT INTO customer_stats (customer_user_id, total_orders, total_spent, first_order_at, last_order_at)
+SELECT customer_user_id,
+       COUNT(*) FILTER (WHERE status IS NULL OR status <> 'CANCELLED'),
+       COALESCE(SUM(total_amount) FILTER (WHERE status IS NULL OR status <> 'CANCELLED'), 0),
+       MIN(created_at),
+       MAX(created_at)
+FROM orders
+WHERE customer_user_id IS NOT NULL
+GROUP BY customer_user_id;
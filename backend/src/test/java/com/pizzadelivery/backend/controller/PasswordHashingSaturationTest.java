@@ -0,0 +1,89 @@
+package com.pizzadelivery.backend.controller;
+
+import com.pizzadelivery.backend.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PasswordHashingSaturationTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.close();
+	}
+
+	@Test
+	void loginAnswers503DirectlyWhenHashingPoolIsFull() throws Exception {
+		// Uma thread e uma vaga na fila: a primeira verificação trava, a segunda espera, a terceira é recusada
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1);
+		for (int i = 0; i < 2; i++) {
+			Thread thread = new Thread(() -> encoder.matches("x", "x"));
+			thread.setDaemon(true);
+			thread.start();
+		}
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		while (encoder.stats().queued() < 1) {
+			Thread.onSpinWait();
+		}
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username ->
+				User.withUsername(username).password("hash").roles("CUSTOMER").build());
+		provider.setPasswordEncoder(encoder);
+		MockMvc mockMvc = MockMvcBuilders
+				.standaloneSetup(new CustomerAuthController(null, new ProviderManager(provider), null, null, null))
+				.setControllerAdvice(new ApiExceptionHandler())
+				.build();
+
+		MvcResult result = mockMvc.perform(post("/api/customer/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"cliente@exemplo.com\",\"password\":\"segredo123\"}"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "1"))
+				.andExpect(jsonPath("$.message").exists())
+				.andReturn();
+
+		// Escrito direto na resposta: sem sendError, não há despacho para /error passando pela segurança
+		assertNull(result.getResponse().getErrorMessage());
+		assertTrue(encoder.stats().rejected() >= 1);
+	}
+
+	private final class BlockingEncoder implements PasswordEncoder {
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.pizzadelivery.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeBucketRingTest {
+
+	@Test
+	void accumulatesWithinBucketAndRecyclesOldSlots() {
+		TimeBucketRing ring = new TimeBucketRing(1000, 4);
+
+		ring.add(1_000, 1, 500);
+		ring.add(1_999, 2, 250);
+		assertEquals(3, ring.count(1));
+		assertEquals(750, ring.amount(1));
+
+		// O intervalo 5 cai na mesma posição do intervalo 1 e a recicla
+		ring.add(5_000, 1, 100);
+		assertEquals(0, ring.count(1));
+		assertEquals(1, ring.count(5));
+
+		// Eventos mais antigos que a janela do anel são descartados
+		ring.add(1_500, 1, 100);
+		assertEquals(1, ring.count(5));
+		assertEquals(0, ring.count(1));
+	}
+}
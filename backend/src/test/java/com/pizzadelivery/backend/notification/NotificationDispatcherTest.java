@@ -0,0 +1,90 @@
+package com.pizzadelivery.backend.notification;
+
+import com.pizzadelivery.backend.entity.CustomerUser;
+import com.pizzadelivery.backend.entity.NotificationDeadLetter;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.CustomerUserRepository;
+import com.pizzadelivery.backend.repository.NotificationDeadLetterRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void fansOutPerChannelAndDeadLettersAfterRetries() throws Exception {
+		CustomerUser customer = CustomerUser.builder().id("c1").email("ana@example.com").whatsapp("11999990000").build();
+		CustomerUserRepository customers = mock(CustomerUserRepository.class);
+		when(customers.findById("c1")).thenReturn(Optional.of(customer));
+		NotificationDeadLetterRepository deadLetters = mock(NotificationDeadLetterRepository.class);
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("notification.defaults.max-attempts", "2")
+				.withProperty("notification.defaults.retry-backoff", "1ms");
+
+		RecordingChannel email = new RecordingChannel("email", false);
+		RecordingChannel whatsapp = new RecordingChannel("whatsapp", true);
+		NotificationDispatcher dispatcher = new NotificationDispatcher(List.of(email, whatsapp), customers, deadLetters,
+				mock(PlatformTransactionManager.class), environment, true);
+
+		dispatcher.onStatusChanged(new OrderEvents.OrderStatusChanged("abcdef123456", "c1", DeliveryType.DELIVERY,
+				OrderStatus.PREPARING, OrderStatus.OUT_FOR_DELIVERY, LocalDateTime.now(), 50, LocalDateTime.now()));
+
+		ArgumentCaptor<List<NotificationDeadLetter>> captor = ArgumentCaptor.forClass(List.class);
+		verify(deadLetters, timeout(2000)).saveAll(captor.capture());
+		dispatcher.shutdown();
+
+		assertEquals(1, email.delivered.size());
+		assertEquals("Seu pedido #ABCDEF12 saiu para entrega.", email.delivered.get(0).message());
+		assertEquals(2, whatsapp.attempts);
+		NotificationDeadLetter deadLetter = captor.getValue().get(0);
+		assertEquals("whatsapp", deadLetter.getChannel());
+		assertEquals("11999990000", deadLetter.getRecipient());
+		assertEquals(2, deadLetter.getAttempts());
+	}
+
+	private static final class RecordingChannel implements NotificationChannel {
+		private final String name;
+		private final boolean failing;
+		final List<Notification> delivered = new CopyOnWriteArrayList<>();
+		volatile int attempts;
+
+		RecordingChannel(String name, boolean failing) {
+			this.name = name;
+			this.failing = failing;
+		}
+
+		@Override
+		public String name() {
+			return name;
+		}
+
+		@Override
+		public String addressOf(CustomerUser customer) {
+			return name.equals("email") ? customer.getEmail() : customer.getWhatsapp();
+		}
+
+		@Override
+		public void deliver(List<Notification> batch) {
+			attempts++;
+			if (failing) {
+				throw new IllegalStateException("Provedor indisponível");
+			}
+			delivered.addAll(batch);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.pizzadelivery.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRegistryTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstThenRefillsAtConfiguredRate() {
+		TokenBucketRegistry registry = new TokenBucketRegistry(100, 4, Duration.ofMinutes(15));
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, registry.tryAcquire("login|ip:1.2.3.4", 3, 1, 0));
+		}
+		long wait = registry.tryAcquire("login|ip:1.2.3.4", 3, 1, 0);
+		assertEquals(SECOND, wait);
+
+		// Outro cliente tem o próprio balde
+		assertEquals(0, registry.tryAcquire("login|ip:5.6.7.8", 3, 1, 0));
+
+		// Meio segundo depois ainda falta meia ficha; um segundo depois há uma
+		assertEquals(SECOND / 2, registry.tryAcquire("login|ip:1.2.3.4", 3, 1, SECOND / 2));
+		assertEquals(0, registry.tryAcquire("login|ip:1.2.3.4", 3, 1, SECOND));
+	}
+
+	@Test
+	void releaseReturnsTokenWithoutExceedingCapacity() {
+		TokenBucketRegistry registry = new TokenBucketRegistry(100, 4, Duration.ofMinutes(15));
+
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:1.2.3.4", 2, 1, 0));
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:1.2.3.4", 2, 1, 0));
+		assertTrue(registry.tryAcquire("orders-ip|ip:1.2.3.4", 2, 1, 0) > 0);
+
+		registry.release("orders-ip|ip:1.2.3.4", 2);
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:1.2.3.4", 2, 1, 0));
+
+		// Devolver a um balde cheio não cria ficha extra
+		registry.release("orders-ip|ip:5.6.7.8", 2);
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:5.6.7.8", 2, 1, 0));
+		registry.release("orders-ip|ip:5.6.7.8", 2);
+		registry.release("orders-ip|ip:5.6.7.8", 2);
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:5.6.7.8", 2, 1, 0));
+		assertEquals(0, registry.tryAcquire("orders-ip|ip:5.6.7.8", 2, 1, 0));
+		assertTrue(registry.tryAcquire("orders-ip|ip:5.6.7.8", 2, 1, 0) > 0);
+	}
+
+	@Test
+	void staysBoundedAndEvictsIdleBuckets() {
+		TokenBucketRegistry registry = new TokenBucketRegistry(64, 4, Duration.ofSeconds(10));
+
+		for (int i = 0; i < 1_000; i++) {
+			registry.tryAcquire("ip:" + i, 5, 1, i);
+		}
+		assertTrue(registry.size() <= 64);
+
+		registry.evictIdle(2_000 + 11 * SECOND);
+		assertEquals(0, registry.size());
+	}
+}
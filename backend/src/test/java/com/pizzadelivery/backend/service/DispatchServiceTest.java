@@ -0,0 +1,78 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.DispatchDtos;
+import com.pizzadelivery.backend.entity.DeliveryAddress;
+import com.pizzadelivery.backend.entity.Order;
+import com.pizzadelivery.backend.enums.DeliveryType;
+import com.pizzadelivery.backend.enums.OrderStatus;
+import com.pizzadelivery.backend.event.OrderEvents;
+import com.pizzadelivery.backend.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DispatchServiceTest {
+
+	@Test
+	void orderReturnedToPreparingIsProposedAgain() {
+		Order order = Order.builder()
+				.id("pedido-1")
+				.status(OrderStatus.RECEIVED)
+				.deliveryType(DeliveryType.DELIVERY)
+				.deliveryAddress(DeliveryAddress.builder().zipCode("01310-100").neighborhood("Bela Vista").build())
+				.createdAt(LocalDateTime.now())
+				.build();
+
+		// Repositório em memória com o mesmo filtro das consultas de candidatos
+		OrderRepository orders = mock(OrderRepository.class);
+		when(orders.findById("pedido-1")).thenReturn(Optional.of(order));
+		when(orders.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(orders.findAllByIdForUpdate(anyList())).thenReturn(List.of(order));
+		when(orders.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(orders.findDispatchCandidate("pedido-1")).thenAnswer(invocation -> order.getDispatchBatchId() == null
+				? Optional.of(new DispatchDtos.DispatchCandidate(order.getId(), order.getDeliveryAddress().getZipCode(),
+						order.getDeliveryAddress().getNeighborhood(), LocalDateTime.now()))
+				: Optional.empty());
+
+		// Os eventos vão direto para o motor, como aconteceria após o commit
+		AtomicReference<DispatchService> engine = new AtomicReference<>();
+		OrderService orderService = new OrderService(orders, null, null, null, null, null, null, null, null,
+				event -> engine.get().onStatusChanged((OrderEvents.OrderStatusChanged) event));
+		DispatchService dispatch = new DispatchService(orders, orderService, 5, 10, 4);
+		engine.set(dispatch);
+
+		orderService.updateOrderStatus("pedido-1", OrderStatus.PREPARING);
+		String firstBatch = dispatch.getProposedBatches().get(0).batchId();
+		dispatch.assignBatch(firstBatch, "João");
+		assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus());
+		assertEquals(firstBatch, order.getDispatchBatchId());
+		assertTrue(dispatch.getProposedBatches().isEmpty());
+
+		// O entregador voltou com o pedido
+		orderService.updateOrderStatus("pedido-1", OrderStatus.PREPARING);
+		assertNull(order.getDispatchBatchId());
+		assertNull(order.getCourierName());
+		assertNull(order.getDispatchedAt());
+
+		List<DispatchDtos.ProposedBatch> proposed = dispatch.getProposedBatches();
+		assertEquals(1, proposed.size());
+		assertEquals(List.of("pedido-1"), proposed.get(0).orderIds());
+		assertNotEquals(firstBatch, proposed.get(0).batchId());
+
+		dispatch.assignBatch(proposed.get(0).batchId(), "Maria");
+		assertEquals("Maria", order.getCourierName());
+		assertEquals(proposed.get(0).batchId(), order.getDispatchBatchId());
+	}
+}
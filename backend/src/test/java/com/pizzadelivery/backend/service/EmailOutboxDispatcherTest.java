@@ -0,0 +1,170 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.entity.EmailOutboxMessage;
+import com.pizzadelivery.backend.enums.EmailOutboxStatus;
+import com.pizzadelivery.backend.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+	private SmtpStandIn smtp;
+
+	@BeforeEach
+	void startSmtp() throws IOException {
+		smtp = new SmtpStandIn(Set.of("bounce@example.com"));
+	}
+
+	@AfterEach
+	void stopSmtp() throws IOException {
+		smtp.close();
+	}
+
+	@Test
+	void sendsChunkOverOneConnectionAndRetriesOnlyRejectedMessages() {
+		EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+		when(repository.lockDue(any(), anyInt())).thenReturn(List.of(
+				row("1", "a@example.com"), row("2", "bounce@example.com"), row("3", "c@example.com")));
+		EmailOutboxDispatcher dispatcher = dispatcher(repository);
+
+		assertEquals(3, dispatcher.dispatchBatch());
+		dispatcher.shutdown();
+
+		assertEquals(1, smtp.connections.get());
+		assertEquals(List.of("a@example.com", "c@example.com"), smtp.delivered);
+		verify(repository).markSending(eq(List.of("1", "2", "3")), eq(EmailOutboxStatus.SENDING), any());
+		verify(repository).markSent(eq(List.of("1", "3")), eq(EmailOutboxStatus.SENT), any());
+		verify(repository).markFailed(eq("2"), eq(EmailOutboxStatus.PENDING), eq(1), any(), anyString());
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		EmailOutboxDispatcher dispatcher = dispatcher(mock(EmailOutboxRepository.class));
+
+		assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+		assertEquals(Duration.ofSeconds(120), dispatcher.backoff(3));
+		assertEquals(Duration.ofHours(1), dispatcher.backoff(20));
+		dispatcher.shutdown();
+	}
+
+	private EmailOutboxDispatcher dispatcher(EmailOutboxRepository repository) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("127.0.0.1");
+		mailSender.setPort(smtp.port());
+		mailSender.getJavaMailProperties().put("mail.smtp.from", "outbox@example.com");
+		TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+		return new EmailOutboxDispatcher(repository, mailSender, transactionTemplate, 50, 10, 1, 8,
+				Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(7));
+	}
+
+	private static EmailOutboxMessage row(String id, String recipient) {
+		return EmailOutboxMessage.builder()
+				.id(id)
+				.recipient(recipient)
+				.subject("Assunto " + id)
+				.body("Corpo " + id)
+				.status(EmailOutboxStatus.PENDING)
+				.build();
+	}
+
+	/** Servidor SMTP mínimo em processo: aceita tudo, exceto os destinatários recusados. */
+	private static final class SmtpStandIn implements AutoCloseable {
+		private final ServerSocket server;
+		private final Set<String> rejected;
+		final AtomicInteger connections = new AtomicInteger();
+		final List<String> delivered = new CopyOnWriteArrayList<>();
+
+		SmtpStandIn(Set<String> rejected) throws IOException {
+			this.server = new ServerSocket(0);
+			this.rejected = rejected;
+			Thread acceptor = new Thread(this::acceptLoop, "smtp-stand-in");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int port() {
+			return server.getLocalPort();
+		}
+
+		private void acceptLoop() {
+			while (!server.isClosed()) {
+				try {
+					Socket socket = server.accept();
+					connections.incrementAndGet();
+					Thread session = new Thread(() -> serve(socket), "smtp-stand-in-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void serve(Socket socket) {
+			try (socket;
+				 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+				reply(out, "220 localhost");
+				String recipient = null;
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.toUpperCase();
+					if (command.startsWith("RCPT TO:")) {
+						recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+						reply(out, rejected.contains(recipient) ? "550 No such user" : "250 OK");
+					} else if (command.equals("DATA")) {
+						reply(out, "354 Continue");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// o conteúdo da mensagem não interessa ao teste
+						}
+						delivered.add(recipient);
+						reply(out, "250 OK");
+					} else if (command.equals("QUIT")) {
+						reply(out, "221 Bye");
+						return;
+					} else {
+						reply(out, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// conexão encerrada pelo cliente
+			}
+		}
+
+		private static void reply(PrintWriter out, String line) {
+			out.print(line + "\r\n");
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			server.close();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.pizzadelivery.backend.service;
+
+import com.pizzadelivery.backend.dto.AuthDtos;
+import com.pizzadelivery.backend.entity.RefreshToken;
+import com.pizzadelivery.backend.repository.RefreshTokenRepository;
+import com.pizzadelivery.backend.security.JwtTokenProvider;
+import com.pizzadelivery.backend.security.OpaqueTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+	private final Map<String, RefreshToken> rows = new ConcurrentHashMap<>();
+	private RefreshTokenRepository repository;
+	private JwtTokenProvider jwtTokenProvider;
+
+	@BeforeEach
+	void setUp() {
+		// Repositório em memória com as mesmas regras das consultas JPQL
+		repository = mock(RefreshTokenRepository.class);
+		when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+			RefreshToken token = invocation.getArgument(0);
+			rows.put(token.getTokenHash(), token);
+			return token;
+		});
+		when(repository.lockByTokenHash(anyString())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+		when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+		when(repository.existsByFamilyIdAndRevokedAtIsNull(anyString())).thenAnswer(invocation -> rows.values().stream()
+				.anyMatch(t -> t.getFamilyId().equals(invocation.getArgument(0)) && t.getRevokedAt() == null));
+		when(repository.revokeFamily(anyString(), any())).thenAnswer(invocation -> revokeWhere(
+				t -> t.getFamilyId().equals(invocation.getArgument(0)), invocation.getArgument(1)));
+		when(repository.revokeBySubject(anyString(), any())).thenAnswer(invocation -> revokeWhere(
+				t -> t.getSubject().equals(invocation.getArgument(0)), invocation.getArgument(1)));
+
+		jwtTokenProvider = mock(JwtTokenProvider.class);
+		when(jwtTokenProvider.createToken(any(), isNull())).thenReturn("jwt");
+	}
+
+	@Test
+	void rotatesAndRevokesSessionOnReplayAfterGrace() {
+		RefreshTokenService service = service(Duration.ofDays(14), Duration.ofDays(60), Duration.ofSeconds(30));
+		String first = service.issue(admin("gerente"));
+
+		AuthDtos.TokenResponse rotated = service.refresh(first);
+		assertEquals("jwt", rotated.token());
+		assertNotEquals(first, rotated.refreshToken());
+		RefreshToken old = rows.get(OpaqueTokens.hash(first));
+		assertNotNull(old.getRevokedAt());
+		assertEquals(OpaqueTokens.hash(rotated.refreshToken()), old.getReplacedByHash());
+
+		// Passado o prazo de tolerância, reapresentar o token trocado encerra a sessão inteira
+		old.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+		assertThrows(BadCredentialsException.class, () -> service.refresh(first));
+		assertThrows(BadCredentialsException.class, () -> service.refresh(rotated.refreshToken()));
+	}
+
+	@Test
+	void concurrentRefreshWithinGraceKeepsBothTabsLoggedIn() {
+		RefreshTokenService service = service(Duration.ofDays(14), Duration.ofDays(60), Duration.ofSeconds(30));
+		String shared = service.issue(admin("gerente"));
+
+		String tabA = service.refresh(shared).refreshToken();
+		String tabB = service.refresh(shared).refreshToken();
+
+		assertNotEquals(tabA, tabB);
+		assertNotNull(service.refresh(tabA).refreshToken());
+		assertNotNull(service.refresh(tabB).refreshToken());
+	}
+
+	@Test
+	void revokedFamilyIsNotRevivedByGrace() {
+		RefreshTokenService service = service(Duration.ofDays(14), Duration.ofDays(60), Duration.ofSeconds(30));
+		String first = service.issue(admin("gerente"));
+		String second = service.refresh(first).refreshToken();
+
+		service.revoke(second);
+
+		assertThrows(BadCredentialsException.class, () -> service.refresh(second));
+		assertThrows(BadCredentialsException.class, () -> service.refresh(first));
+	}
+
+	@Test
+	void idleExpiryIsCappedByMaxTtlAndEnforced() {
+		RefreshTokenService service = service(Duration.ofDays(14), Duration.ofDays(1), Duration.ofSeconds(30));
+		String token = service.issue(admin("gerente"));
+
+		RefreshToken row = rows.get(OpaqueTokens.hash(token));
+		assertEquals(row.getFamilyExpiresAt(), row.getExpiresAt());
+
+		String next = service.refresh(token).refreshToken();
+		RefreshToken successor = rows.get(OpaqueTokens.hash(next));
+		assertEquals(row.getFamilyExpiresAt(), successor.getExpiresAt());
+
+		successor.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+		assertThrows(BadCredentialsException.class, () -> service.refresh(next));
+	}
+
+	@Test
+	void revokeAllEndsEverySessionOfTheSubject() {
+		RefreshTokenService service = service(Duration.ofDays(14), Duration.ofDays(60), Duration.ofSeconds(30));
+		String tablet = service.issue(admin("gerente"));
+		String desktop = service.issue(admin("gerente"));
+		String other = service.issue(admin("caixa"));
+
+		service.revokeAll("gerente");
+
+		assertThrows(BadCredentialsException.class, () -> service.refresh(tablet));
+		assertThrows(BadCredentialsException.class, () -> service.refresh(desktop));
+		assertNotNull(service.refresh(other).refreshToken());
+	}
+
+	private RefreshTokenService service(Duration idleTtl, Duration maxTtl, Duration reuseGrace) {
+		return new RefreshTokenService(repository, jwtTokenProvider, null, idleTtl, maxTtl, reuseGrace);
+	}
+
+	private static UsernamePasswordAuthenticationToken admin(String username) {
+		return new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+	}
+
+	private int revokeWhere(Predicate<RefreshToken> filter, LocalDateTime now) {
+		int revoked = 0;
+		for (RefreshToken token : rows.values()) {
+			if (token.getRevokedAt() == null && filter.test(token)) {
+				token.setRevokedAt(now);
+				revoked++;
+			}
+		}
+		return revoked;
+	}
+}